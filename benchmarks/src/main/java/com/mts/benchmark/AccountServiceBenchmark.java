@@ -0,0 +1,171 @@
+package com.mts.benchmark;
+
+import com.mts.api.MtsApplication;
+import com.mts.api.domain.Money;
+import com.mts.api.exceptions.impl.ConcurrentModification;
+import com.mts.api.service.AccountManagementService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of {@link AccountManagementService} operations against a real Spring context and H2.
+ * <p>
+ * Parameters cover the database mode ({@code mem} or {@code file}), the account engine, the number of
+ * seeded accounts and how operations pick accounts: {@code uniform} spreads them evenly, {@code zipfian}
+ * concentrates them on a few hot accounts. Thread counts are swept by {@link BenchmarkMain}. Transfers
+ * that still conflict after the optimistic retries are counted as {@code aborts} instead of failing.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountServiceBenchmark {
+    private static final Money INITIAL_BALANCE = Money.valueOf("1000000000");
+    private static final Money AMOUNT = Money.valueOf("0.01");
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        @Param({"mem", "file"})
+        public String database;
+        @Param({"jpa"})
+        public String engine;
+        @Param({"1000", "10000"})
+        public int accounts;
+        @Param({"uniform", "zipfian"})
+        public String skew;
+
+        ConfigurableApplicationContext context;
+        AccountManagementService accountManagementService;
+        long[] accountIds;
+        Zipfian zipfian;
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            directory = Files.createTempDirectory("mts-benchmark");
+            String url = "mem".equals(database)
+                    ? "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"
+                    : "jdbc:h2:file:" + directory.resolve("benchmark");
+            context = new SpringApplicationBuilder(MtsApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(
+                            "--spring.datasource.url=" + url,
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.root=warn",
+                            "--logging.file.name=" + directory.resolve("mts.log"),
+                            "--mts.account.engine=" + engine);
+            accountManagementService = context.getBean(AccountManagementService.class);
+            accountIds = new long[accounts];
+            for (int i = 0; i < accounts; i++) {
+                accountIds[i] = accountManagementService.createAccount("user" + i + "@benchmark", "user" + i).getAccountId();
+                accountManagementService.depositMoney(INITIAL_BALANCE, accountIds[i]);
+            }
+            zipfian = "zipfian".equals(skew) ? new Zipfian(accounts, Zipfian.DEFAULT_EXPONENT) : null;
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws IOException {
+            context.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Picker {
+        public long aborts;
+
+        private SplittableRandom random;
+        private Application application;
+
+        @Setup(Level.Trial)
+        public void init(Application application, ThreadParams threadParams) {
+            this.application = application;
+            this.random = new SplittableRandom(threadParams.getThreadIndex());
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            aborts = 0;
+        }
+
+        long account() {
+            int index = application.zipfian == null
+                    ? random.nextInt(application.accountIds.length)
+                    : application.zipfian.next(random);
+            return application.accountIds[index];
+        }
+
+        long otherAccount(long accountId) {
+            long other;
+            do {
+                other = account();
+            } while (other == accountId);
+            return other;
+        }
+    }
+
+    @Benchmark
+    public Object createAccount(Application application, Picker picker) {
+        return application.accountManagementService.createAccount("new@benchmark", "new");
+    }
+
+    @Benchmark
+    public Object depositMoney(Application application, Picker picker) {
+        try {
+            return application.accountManagementService.depositMoney(AMOUNT, picker.account());
+        } catch (ConcurrentModification e) {
+            picker.aborts++;
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object withdrawMoney(Application application, Picker picker) {
+        try {
+            return application.accountManagementService.withdrawMoney(AMOUNT, picker.account());
+        } catch (ConcurrentModification e) {
+            picker.aborts++;
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void transferMoney(Application application, Picker picker) {
+        long from = picker.account();
+        try {
+            application.accountManagementService.transferMoney(AMOUNT, from, picker.otherAccount(from));
+        } catch (ConcurrentModification e) {
+            picker.aborts++;
+        }
+    }
+}
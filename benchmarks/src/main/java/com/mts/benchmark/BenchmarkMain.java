@@ -0,0 +1,46 @@
+package com.mts.benchmark;
+
+import com.mts.api.config.VirtualThreads;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Without arguments it runs {@link AccountServiceBenchmark} once
+ * per thread count in {@link #THREADS}, then {@link ThreadModelBenchmark} (platform threads only before
+ * Java 21), {@link ProfileBenchmark} and {@link WireBenchmark}, writing one {@code jmh-result-*.json}
+ * per run; with arguments it behaves exactly like the standard JMH command line.
+ */
+public final class BenchmarkMain {
+    private static final int[] THREADS = {1, 4, 16};
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        for (int threads : THREADS) {
+            new Runner(options(AccountServiceBenchmark.class, "jmh-result-" + threads + "t.json")
+                    .threads(threads)
+                    .build()).run();
+        }
+        ChainedOptionsBuilder threadModel = options(ThreadModelBenchmark.class, "jmh-result-thread-model.json");
+        if (!VirtualThreads.isSupported()) {
+            threadModel.param("executor", "platform");
+        }
+        new Runner(threadModel.build()).run();
+        new Runner(options(ProfileBenchmark.class, "jmh-result-profile.json").build()).run();
+        new Runner(options(WireBenchmark.class, "jmh-result-wire.json").build()).run();
+    }
+
+    private static ChainedOptionsBuilder options(Class<?> benchmark, String result) {
+        return new OptionsBuilder()
+                .include(benchmark.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+    }
+}
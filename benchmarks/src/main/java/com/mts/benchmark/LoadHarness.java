@@ -0,0 +1,424 @@
+package com.mts.benchmark;
+
+import com.mts.api.domain.Money;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load and soak test of a running {@code MtsApplication} over its REST API.
+ * <p>
+ * Requests are sent on a fixed schedule of {@code rate} per second, however slowly the server
+ * answers, the way many independent clients would. Each latency is measured from the time its
+ * request was due, so requests queued behind slow ones are charged for the wait rather than
+ * quietly lowering the offered load (coordinated omission). A run
+ * <ol>
+ * <li>creates {@code accounts} accounts and deposits {@code initial-balance} into each,</li>
+ * <li>sums their balances,</li>
+ * <li>sends a {@code mix} of create, deposit, withdraw and transfer requests for {@code warmup}
+ * plus {@code duration}, printing latency percentiles every {@code report-interval},</li>
+ * <li>repeats deposits and withdrawals whose outcome is unknown (timeouts, 5xx) with the same
+ * {@code Idempotency-Key}, so each is either confirmed or known not to have happened,</li>
+ * <li>sums the balances again, and checks that the change is exactly the confirmed deposits minus
+ * the confirmed withdrawals: transfers must neither create nor destroy money.</li>
+ * </ol>
+ * Full latency distributions are written to {@code output/<operation>.hgrm}. The exit status is 0
+ * when the balances add up, 1 when they do not and 2 when some outcomes stayed unknown. Unknown
+ * outcomes are only resolved correctly while their idempotency keys are still retained by the
+ * server, see {@code mts.idempotency.*}.
+ * <pre>
+ * mvn -Pload spring-boot:run -Dspring-boot.run.arguments="rate=500 duration=30m"
+ * java -cp target/benchmarks.jar com.mts.benchmark.LoadHarness --url=http://localhost:8080 --rate=500
+ * </pre>
+ */
+public final class LoadHarness {
+    private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+    static {
+        DEFAULTS.put("url", "http://localhost:8080");
+        DEFAULTS.put("rate", "200");
+        DEFAULTS.put("duration", "60s");
+        DEFAULTS.put("warmup", "10s");
+        DEFAULTS.put("accounts", "100");
+        DEFAULTS.put("initial-balance", "1000");
+        DEFAULTS.put("max-amount", "10");
+        DEFAULTS.put("mix", "create:1,deposit:2,withdraw:2,transfer:15");
+        DEFAULTS.put("skew", "uniform");
+        DEFAULTS.put("threads", "200");
+        DEFAULTS.put("report-interval", "10s");
+        DEFAULTS.put("output", "load-results");
+    }
+
+    private static final int RESOLVE_ATTEMPTS = 5;
+    private static final long RESOLVE_BACKOFF_MILLIS = 200;
+    private static final long BACKLOG_SECONDS = 60;
+
+    private enum Operation {
+        CREATE, DEPOSIT, WITHDRAW, TRANSFER
+    }
+
+    private final Map<String, String> options;
+    private final MtsClient client;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder deposited = new LongAdder();
+    private final LongAdder withdrawn = new LongAdder();
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+    private final Queue<Request> unknown = new ConcurrentLinkedQueue<>();
+    private final int totalWeight;
+    private final long maxAmountUnits;
+    private long[] accountIds;
+    private Zipfian zipfian;
+
+    private LoadHarness(Map<String, String> options) {
+        this.options = options;
+        this.client = new MtsClient(options.get("url"));
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation.name().toLowerCase()));
+            weights.put(operation, 0);
+        }
+        for (String entry : options.get("mix").split(",")) {
+            String[] weight = entry.split(":");
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        this.maxAmountUnits = Money.valueOf(options.get("max-amount")).units();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            if (!DEFAULTS.containsKey(option.split("=")[0]) || !option.contains("=")) {
+                System.err.println("usage: LoadHarness [[--]option=value ...], options and defaults: " + DEFAULTS);
+                System.exit(64);
+            }
+            options.put(option.substring(0, option.indexOf('=')), option.substring(option.indexOf('=') + 1));
+        }
+        // HttpURLConnection keeps only 5 idle connections per host by default
+        System.setProperty("http.maxConnections", options.get("threads"));
+        System.exit(new LoadHarness(options).run());
+    }
+
+    private int run() throws Exception {
+        int threads = Integer.parseInt(options.get("threads"));
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            setUp(workers);
+            long before = sumOfBalances(workers);
+            System.out.printf("%d accounts hold %s%n", accountIds.length, Money.ofUnits(before));
+
+            drive(new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()));
+            resolveUnknownOutcomes();
+            report();
+
+            long after = sumOfBalances(workers);
+            long expected = before + deposited.sum() - withdrawn.sum();
+            System.out.printf("balances: before %s, deposited %s, withdrawn %s, expected %s, actual %s%n",
+                    Money.ofUnits(before), Money.ofUnits(deposited.sum()), Money.ofUnits(withdrawn.sum()),
+                    Money.ofUnits(expected), Money.ofUnits(after));
+            if (!unknown.isEmpty()) {
+                System.out.printf("INCONCLUSIVE: the outcome of %d requests is still unknown%n", unknown.size());
+                return 2;
+            }
+            if (after != expected) {
+                System.out.printf("FAILED: money is not conserved, off by %s%n", Money.ofUnits(after - expected));
+                return 1;
+            }
+            System.out.println("OK: money is conserved");
+            return 0;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void setUp(ExecutorService pool) throws Exception {
+        int accounts = Integer.parseInt(options.get("accounts"));
+        Money initialBalance = Money.valueOf(options.get("initial-balance"));
+        List<Callable<Long>> tasks = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            String name = "load-" + runId + "-" + i;
+            tasks.add(() -> {
+                MtsClient.Response response = client.create(name + "@mts.test", name, null);
+                if (!response.ok()) {
+                    throw new IOException("account creation failed with " + response.status + ": " + response.body);
+                }
+                long accountId = client.json(response).get("accountId").asLong();
+                if (initialBalance.compareTo(Money.ZERO) > 0 && !client.deposit(accountId, initialBalance, null).ok()) {
+                    throw new IOException("initial deposit into account " + accountId + " failed");
+                }
+                return accountId;
+            });
+        }
+        accountIds = new long[accounts];
+        List<Future<Long>> results = pool.invokeAll(tasks);
+        for (int i = 0; i < accounts; i++) {
+            accountIds[i] = results.get(i).get();
+        }
+        zipfian = "zipfian".equals(options.get("skew")) ? new Zipfian(accounts, Zipfian.DEFAULT_EXPONENT) : null;
+    }
+
+    /**
+     * Sends requests on schedule until the run is over and waits for the last ones to complete.
+     */
+    private void drive(ThreadPoolExecutor pool) throws InterruptedException {
+        double rate = Double.parseDouble(options.get("rate"));
+        long warmup = duration("warmup").toNanos();
+        long end = warmup + duration("duration").toNanos();
+        long interval = duration("report-interval").toNanos();
+        long maxBacklog = (long) (rate * BACKLOG_SECONDS);
+        SplittableRandom random = new SplittableRandom();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        reporter.scheduleAtFixedRate(() -> reportInterval(start, interval), interval, interval, TimeUnit.NANOSECONDS);
+        reporter.schedule(() -> {
+            stats.values().forEach(OperationStats::reset);
+            System.out.println("warmup done");
+        }, warmup, TimeUnit.NANOSECONDS);
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * 1e9 / rate);
+                if (intended - start >= end) {
+                    break;
+                }
+                for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (pool.getQueue().size() > maxBacklog) {
+                    System.out.printf("aborting: over %d s of requests are queued, the server cannot sustain %s/s%n",
+                            BACKLOG_SECONDS, options.get("rate"));
+                    pool.getQueue().clear();
+                    break;
+                }
+                Request request = next(random);
+                pool.execute(() -> send(request, intended));
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+            reporter.shutdownNow();
+        }
+    }
+
+    private Request next(SplittableRandom random) {
+        int pick = random.nextInt(totalWeight);
+        Operation operation = null;
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            operation = weight.getKey();
+            pick -= weight.getValue();
+            if (pick < 0) {
+                break;
+            }
+        }
+        Money amount = Money.ofUnits(1 + random.nextLong(maxAmountUnits));
+        long accountId = account(random);
+        long otherAccountId = accountId;
+        while (accountIds.length > 1 && otherAccountId == accountId) {
+            otherAccountId = account(random);
+        }
+        return new Request(operation, accountId, otherAccountId, amount,
+                "load-" + runId + "-" + sequence.incrementAndGet());
+    }
+
+    private long account(SplittableRandom random) {
+        return accountIds[zipfian == null ? random.nextInt(accountIds.length) : zipfian.next(random)];
+    }
+
+    private void send(Request request, long intended) {
+        OperationStats operationStats = stats.get(request.operation);
+        long sent = System.nanoTime();
+        MtsClient.Response response = null;
+        try {
+            response = call(request);
+        } catch (IOException e) {
+            // outcome unknown, handled below
+        }
+        operationStats.record(intended, sent, System.nanoTime());
+        if (response != null && response.ok()) {
+            operationStats.ok.increment();
+            settled(request, response);
+        } else if (response != null && response.rejected()) {
+            operationStats.rejected.increment();
+        } else {
+            operationStats.failed.increment();
+            unknown.add(request);
+        }
+    }
+
+    private MtsClient.Response call(Request request) throws IOException {
+        switch (request.operation) {
+            case CREATE:
+                String name = request.idempotencyKey;
+                return client.create(name + "@mts.test", name, null);
+            case DEPOSIT:
+                return client.deposit(request.accountId, request.amount, request.idempotencyKey);
+            case WITHDRAW:
+                return client.withdraw(request.accountId, request.amount, request.idempotencyKey);
+            case TRANSFER:
+                return client.transfer(request.accountId, request.otherAccountId, request.amount, null);
+            default:
+                throw new IllegalStateException("unknown operation " + request.operation);
+        }
+    }
+
+    private void settled(Request request, MtsClient.Response response) {
+        switch (request.operation) {
+            case CREATE:
+                try {
+                    created.add(client.json(response).get("accountId").asLong());
+                } catch (IOException e) {
+                    throw new IllegalStateException("unreadable account: " + response.body, e);
+                }
+                break;
+            case DEPOSIT:
+                deposited.add(request.amount.units());
+                break;
+            case WITHDRAW:
+                withdrawn.add(request.amount.units());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Repeats requests that may or may not have been applied. Deposits and withdrawals replay their
+     * idempotency key, so the server either reports the original result or applies them now, once.
+     * Failed creates and transfers cannot change the sum of the tracked balances and are dropped.
+     */
+    private void resolveUnknownOutcomes() throws InterruptedException {
+        List<Request> requests = new ArrayList<>(unknown);
+        unknown.clear();
+        for (Request request : requests) {
+            if (request.operation != Operation.DEPOSIT && request.operation != Operation.WITHDRAW) {
+                continue;
+            }
+            MtsClient.Response response = null;
+            for (int attempt = 0; attempt < RESOLVE_ATTEMPTS && (response == null || !response.ok() && !refused(response)); attempt++) {
+                if (attempt > 0) {
+                    Thread.sleep(RESOLVE_BACKOFF_MILLIS);
+                }
+                try {
+                    response = call(request);
+                } catch (IOException e) {
+                    response = null;
+                }
+            }
+            if (response != null && response.ok()) {
+                settled(request, response);
+            } else if (response == null || !refused(response)) {
+                unknown.add(request);
+            }
+        }
+        if (!requests.isEmpty()) {
+            System.out.printf("resolved %d of %d requests with unknown outcome%n", requests.size() - unknown.size(), requests.size());
+        }
+    }
+
+    /**
+     * A 409 means the original attempt is still in flight, so only other client errors are final.
+     */
+    private static boolean refused(MtsClient.Response response) {
+        return response.rejected() && response.status != 409;
+    }
+
+    private long sumOfBalances(ExecutorService workers) throws Exception {
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (long accountId : accountIds) {
+            tasks.add(() -> client.balance(accountId).units());
+        }
+        for (long accountId : created) {
+            tasks.add(() -> client.balance(accountId).units());
+        }
+        long sum = 0;
+        for (Future<Long> balance : workers.invokeAll(tasks)) {
+            sum += balance.get();
+        }
+        return sum;
+    }
+
+    private void reportInterval(long start, long interval) {
+        StringBuilder line = new StringBuilder(String.format("[%5ds]", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)));
+        for (OperationStats operationStats : stats.values()) {
+            Histogram histogram = operationStats.interval();
+            if (histogram.getTotalCount() > 0) {
+                line.append(String.format("  %s %d/s p50 %.1f p99 %.1f max %.1f ms", operationStats.name,
+                        histogram.getTotalCount() * TimeUnit.SECONDS.toNanos(1) / interval,
+                        millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                        millis(histogram.getMaxValue())));
+            }
+        }
+        System.out.println(line);
+    }
+
+    private void report() throws IOException {
+        File output = new File(options.get("output"));
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("cannot create " + output);
+        }
+        System.out.println();
+        System.out.println("latency from scheduled send time in ms (service time p99 in parentheses)");
+        System.out.printf("%-9s %9s %9s %9s %9s %9s %9s %9s %9s %11s%n",
+                "operation", "ok", "rejected", "failed", "p50", "p90", "p99", "p99.9", "max", "(p99)");
+        for (OperationStats operationStats : stats.values()) {
+            Histogram latency = operationStats.totalLatency();
+            Histogram service = operationStats.totalService();
+            System.out.printf("%-9s %9d %9d %9d %9.2f %9.2f %9.2f %9.2f %9.2f %11s%n", operationStats.name,
+                    operationStats.ok.sum(), operationStats.rejected.sum(), operationStats.failed.sum(),
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()), String.format("(%.2f)", millis(service.getValueAtPercentile(99))));
+            operationStats.writeDistribution(new File(output, operationStats.name + ".hgrm").getPath());
+        }
+        System.out.println();
+    }
+
+    private Duration duration(String option) {
+        return DurationStyle.detectAndParse(options.get(option));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Request {
+        private final Operation operation;
+        private final long accountId;
+        private final long otherAccountId;
+        private final Money amount;
+        private final String idempotencyKey;
+
+        private Request(Operation operation, long accountId, long otherAccountId, Money amount, String idempotencyKey) {
+            this.operation = operation;
+            this.accountId = accountId;
+            this.otherAccountId = otherAccountId;
+            this.amount = amount;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mts.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.domain.Money;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking client for the {@code /account} endpoints over {@link HttpURLConnection}, which
+ * keeps connections alive between calls on the same thread.
+ */
+final class MtsClient {
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    MtsClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    Response create(String email, String username, String idempotencyKey) throws IOException {
+        return call("POST", "/account/create?email=" + email + "&username=" + username, idempotencyKey);
+    }
+
+    Response deposit(long accountId, Money amount, String idempotencyKey) throws IOException {
+        return call("PUT", "/account/deposit?amount=" + amount + "&accountId=" + accountId, idempotencyKey);
+    }
+
+    Response withdraw(long accountId, Money amount, String idempotencyKey) throws IOException {
+        return call("PUT", "/account/withdraw?amount=" + amount + "&accountId=" + accountId, idempotencyKey);
+    }
+
+    Response transfer(long fromAccountId, long toAccountId, Money amount, String idempotencyKey) throws IOException {
+        return call("POST", "/account/transfer?amount=" + amount + "&fromAccount=" + fromAccountId
+                + "&toAccount=" + toAccountId, idempotencyKey);
+    }
+
+    /**
+     * @return the ledger balance of the account
+     */
+    Money balance(long accountId) throws IOException {
+        Response response = call("GET", "/account/" + accountId, null);
+        if (response.status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("balance of account " + accountId + " failed with " + response.status + ": " + response.body);
+        }
+        return Money.of(json(response).get("balance").decimalValue());
+    }
+
+    JsonNode json(Response response) throws IOException {
+        return objectMapper.readTree(response.body);
+    }
+
+    private Response call(String method, String path, String idempotencyKey) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        if (idempotencyKey != null) {
+            connection.setRequestProperty("Idempotency-Key", idempotencyKey);
+        }
+        int status = connection.getResponseCode();
+        InputStream stream = status < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream() : connection.getErrorStream();
+        // reading the body to the end lets the connection go back to the keep-alive cache
+        return new Response(status, stream == null ? "" : read(stream));
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                body.write(buffer, 0, n);
+            }
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean ok() {
+            return status / 100 == 2;
+        }
+
+        /**
+         * A 4xx answer means the request was refused and changed nothing; anything else but success
+         * leaves its outcome unknown.
+         */
+        boolean rejected() {
+            return status / 100 == 4;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mts.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counters and latency histograms of one operation type, in microseconds.
+ * <p>
+ * {@code latency} is measured from when the request was due to be sent, so time spent waiting
+ * behind slow requests counts against the run instead of silently lowering the request rate
+ * (coordinated omission). {@code service} is measured from when it was actually sent, for comparison.
+ */
+final class OperationStats {
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    final String name;
+    final LongAdder ok = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    private final Recorder latency = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder service = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram totalLatency = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram totalService = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+    private Histogram intervalLatency;
+    private Histogram intervalService;
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    void record(long intendedNanos, long sentNanos, long doneNanos) {
+        latency.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos)));
+        service.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos)));
+    }
+
+    /**
+     * Takes the latencies recorded since the previous interval and adds them to the totals.
+     *
+     * @return the interval's latency histogram
+     */
+    synchronized Histogram interval() {
+        intervalLatency = latency.getIntervalHistogram(intervalLatency);
+        intervalService = service.getIntervalHistogram(intervalService);
+        totalLatency.add(intervalLatency);
+        totalService.add(intervalService);
+        return intervalLatency;
+    }
+
+    /**
+     * Drops everything recorded so far, at the end of the warmup.
+     */
+    synchronized void reset() {
+        interval();
+        totalLatency.reset();
+        totalService.reset();
+        ok.reset();
+        rejected.reset();
+        failed.reset();
+    }
+
+    synchronized Histogram totalLatency() {
+        interval();
+        return totalLatency;
+    }
+
+    synchronized Histogram totalService() {
+        interval();
+        return totalService;
+    }
+
+    /**
+     * Writes the full latency distribution in the {@code .hgrm} format that HdrHistogram's plotter reads.
+     */
+    synchronized void writeDistribution(String file) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(file)) {
+            totalLatency().outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.mts.benchmark;
+
+import com.mts.api.MtsApplication;
+import com.mts.api.domain.Money;
+import com.mts.api.exceptions.impl.ConcurrentModification;
+import com.mts.api.service.AccountManagementService;
+import com.mts.api.service.AccountQueryService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The {@code perf} profile against the shipped defaults, on the jpa engine and a file database.
+ * <p>
+ * Each trial starts the application with one profile and nothing else overridden, so the default run
+ * keeps its SQL echo; standard out goes to a file in the trial directory, flushed per line like a
+ * console, instead of into the benchmark output. {@code accountDetails} looks up an account's user by
+ * id, which the {@code perf} profile serves from the second-level cache.
+ */
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProfileBenchmark {
+    private static final Money INITIAL_BALANCE = Money.valueOf("1000000000");
+    private static final Money AMOUNT = Money.valueOf("0.01");
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        @Param({"default", "perf"})
+        public String profile;
+        @Param({"1000"})
+        public int accounts;
+
+        ConfigurableApplicationContext context;
+        AccountManagementService accountManagementService;
+        AccountQueryService accountQueryService;
+        long[] accountIds;
+        private Path directory;
+        private PrintStream out;
+        private PrintStream console;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            directory = Files.createTempDirectory("mts-benchmark");
+            console = System.out;
+            out = new PrintStream(new BufferedOutputStream(new FileOutputStream(directory.resolve("stdout.log").toFile())), true);
+            System.setOut(out);
+            context = new SpringApplicationBuilder(MtsApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles(profile)
+                    .run(
+                            "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("benchmark"),
+                            "--logging.file.name=" + directory.resolve("mts.log"),
+                            "--mts.logging.sql.file=" + directory.resolve("sql.log"),
+                            "--mts.account.engine=jpa");
+            accountManagementService = context.getBean(AccountManagementService.class);
+            accountQueryService = context.getBean(AccountQueryService.class);
+            accountIds = new long[accounts];
+            for (int i = 0; i < accounts; i++) {
+                accountIds[i] = accountManagementService.createAccount("user" + i + "@benchmark", "user" + i).getAccountId();
+                accountManagementService.depositMoney(INITIAL_BALANCE, accountIds[i]);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws IOException {
+            context.close();
+            System.setOut(console);
+            out.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Picker {
+        public long aborts;
+
+        private SplittableRandom random;
+        private Application application;
+
+        @Setup(Level.Trial)
+        public void init(Application application, ThreadParams threadParams) {
+            this.application = application;
+            this.random = new SplittableRandom(threadParams.getThreadIndex());
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            aborts = 0;
+        }
+
+        long account() {
+            return application.accountIds[random.nextInt(application.accountIds.length)];
+        }
+
+        long otherAccount(long accountId) {
+            long other;
+            do {
+                other = account();
+            } while (other == accountId);
+            return other;
+        }
+    }
+
+    @Benchmark
+    public Object depositMoney(Application application, Picker picker) {
+        try {
+            return application.accountManagementService.depositMoney(AMOUNT, picker.account());
+        } catch (ConcurrentModification e) {
+            picker.aborts++;
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void transferMoney(Application application, Picker picker) {
+        long from = picker.account();
+        try {
+            application.accountManagementService.transferMoney(AMOUNT, from, picker.otherAccount(from));
+        } catch (ConcurrentModification e) {
+            picker.aborts++;
+        }
+    }
+
+    @Benchmark
+    public Object accountDetails(Application application, Picker picker) {
+        return application.accountQueryService.details(picker.account());
+    }
+}
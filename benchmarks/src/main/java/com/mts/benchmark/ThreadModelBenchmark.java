@@ -0,0 +1,119 @@
+package com.mts.benchmark;
+
+import com.mts.api.MtsApplication;
+import com.mts.api.config.VirtualThreads;
+import com.mts.api.domain.Money;
+import com.mts.api.service.AccountManagementService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of the platform thread pool Tomcat uses by default (200 threads) against one
+ * virtual thread per request, as the number of concurrent requests grows.
+ * <p>
+ * A request waits {@code latencyMillis} to stand in for the network round trip to a remote database,
+ * then deposits into a random account. Each invocation is one wave of {@code concurrency} requests;
+ * the {@code requests} counter is the request throughput. The {@code virtual} executor needs Java 21.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+    private static final int PLATFORM_THREADS = 200;
+    private static final int ACCOUNTS = 1000;
+    private static final Money AMOUNT = Money.valueOf("0.01");
+
+    @Param({"platform", "virtual"})
+    public String executor;
+    @Param({"200", "2000", "10000"})
+    public int concurrency;
+    @Param({"1"})
+    public int latencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private AccountManagementService accountManagementService;
+    private ExecutorService pool;
+    private long[] accountIds;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        pool = "virtual".equals(executor)
+                ? VirtualThreads.newExecutor("benchmark-vt-")
+                .orElseThrow(() -> new IllegalStateException("virtual threads need Java 21"))
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        context = new SpringApplicationBuilder(MtsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:threads;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn",
+                        "--spring.datasource.hikari.maximum-pool-size=" + PLATFORM_THREADS);
+        accountManagementService = context.getBean(AccountManagementService.class);
+        accountIds = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds[i] = accountManagementService.createAccount("user" + i + "@benchmark", "user" + i).getAccountId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public void wave(Requests requests) throws InterruptedException, ExecutionException {
+        List<Future<?>> inFlight = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            inFlight.add(pool.submit(this::request));
+        }
+        for (Future<?> request : inFlight) {
+            request.get();
+        }
+        requests.requests += concurrency;
+    }
+
+    private Object request() throws InterruptedException {
+        Thread.sleep(latencyMillis);
+        return accountManagementService.depositMoney(AMOUNT, accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)]);
+    }
+}
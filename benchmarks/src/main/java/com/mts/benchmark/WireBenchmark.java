@@ -0,0 +1,158 @@
+package com.mts.benchmark;
+
+import com.mts.api.MtsApplication;
+import com.mts.api.domain.Money;
+import com.mts.api.service.AccountManagementService;
+import com.mts.api.wire.WireClient;
+import com.mts.api.wire.WireOperation;
+import com.mts.api.wire.WireServer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfer latency over the binary protocol against {@code POST /account/transfer}, through real
+ * sockets to one application serving both.
+ * <p>
+ * Each invocation makes {@code pipeline} transfers between random accounts: the REST client sends them
+ * one after another, the binary client writes them all before reading the responses. The score is
+ * the latency distribution of one invocation; transfers that were not answered with success are
+ * counted as {@code failures}.
+ */
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireBenchmark {
+    private static final int ACCOUNTS = 1000;
+    private static final Money INITIAL_BALANCE = Money.valueOf("1000000000");
+    private static final Money AMOUNT = Money.valueOf("0.01");
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        @Param({"rest", "wire"})
+        public String transport;
+        @Param({"1", "16"})
+        public int pipeline;
+
+        ConfigurableApplicationContext context;
+        long[] accountIds;
+        int restPort;
+        int wirePort;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(MtsApplication.class)
+                    .run(
+                            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.root=warn",
+                            "--server.port=0",
+                            "--mts.wire.enabled=true",
+                            "--mts.wire.port=0");
+            restPort = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            wirePort = context.getBean(WireServer.class).getPort();
+            AccountManagementService accountManagementService = context.getBean(AccountManagementService.class);
+            accountIds = new long[ACCOUNTS];
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accountIds[i] = accountManagementService.createAccount("user" + i + "@benchmark", "user" + i).getAccountId();
+                accountManagementService.depositMoney(INITIAL_BALANCE, accountIds[i]);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Client {
+        public long failures;
+
+        private SplittableRandom random;
+        private long[] accountIds;
+        private MtsClient rest;
+        private WireClient wire;
+
+        @Setup(Level.Trial)
+        public void connect(Application application, ThreadParams threadParams) throws IOException {
+            random = new SplittableRandom(threadParams.getThreadIndex());
+            accountIds = application.accountIds;
+            if ("wire".equals(application.transport)) {
+                wire = new WireClient(new InetSocketAddress("localhost", application.wirePort));
+            } else {
+                rest = new MtsClient("http://localhost:" + application.restPort);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            failures = 0;
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() throws IOException {
+            if (wire != null) {
+                wire.close();
+            }
+        }
+
+        long account() {
+            return accountIds[random.nextInt(accountIds.length)];
+        }
+
+        long otherAccount(long accountId) {
+            long other;
+            do {
+                other = account();
+            } while (other == accountId);
+            return other;
+        }
+    }
+
+    @Benchmark
+    public void transfer(Application application, Client client) throws IOException {
+        if (client.wire != null) {
+            for (int i = 0; i < application.pipeline; i++) {
+                long from = client.account();
+                client.wire.send(WireOperation.TRANSFER, from, client.otherAccount(from), AMOUNT.units());
+            }
+            for (int i = 0; i < application.pipeline; i++) {
+                if (!client.wire.receive().isOk()) {
+                    client.failures++;
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < application.pipeline; i++) {
+            long from = client.account();
+            if (!client.rest.transfer(from, client.otherAccount(from), AMOUNT, null).ok()) {
+                client.failures++;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.mts.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws indexes in {@code [0, n)} following a Zipf distribution: index 0 is the hottest, and with
+ * the default exponent of 0.99 a few percent of the indexes receive most of the draws.
+ * <p>
+ * The cumulative distribution is computed once and shared; a draw is one binary search.
+ */
+final class Zipfian {
+    static final double DEFAULT_EXPONENT = 0.99;
+
+    private final double[] cumulative;
+
+    Zipfian(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    int next(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.mts.api.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Account;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of {@link AccountBalance}s in front of {@link AccountRepository}.
+ * <p>
+ * Misses load a balance projection without the user join. Writers publish the committed balance
+ * with {@link #update(Account)}; entries are only replaced by an equal or higher {@code @Version},
+ * so a slow loader or a late writer can never overwrite a newer balance. Eviction is Caffeine's
+ * size-bounded W-TinyLFU; hit and miss counts are published as {@code cache.*} metrics.
+ */
+@Component
+public class AccountBalanceCache {
+    private final LoadingCache<Long, AccountBalance> balances;
+
+    public AccountBalanceCache(AccountRepository accountRepository, AccountProperties accountProperties,
+                               MeterRegistry meterRegistry) {
+        AccountProperties.Cache cache = accountProperties.getCache();
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(cache.getMaxSize())
+                .recordStats();
+        if (cache.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(cache.getExpireAfterWrite());
+        }
+        this.balances = builder.build(accountId -> accountRepository.findBalanceById(accountId).orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, balances, "accountBalance");
+    }
+
+    public AccountBalance get(Long accountId) {
+        AccountBalance balance = balances.get(accountId);
+        if (balance == null) {
+            throw new AccountDoesNotExist(accountId);
+        }
+        return balance;
+    }
+
+    /**
+     * Publishes a committed account state.
+     */
+    public void update(Account account) {
+        AccountBalance balance = AccountBalance.of(account);
+        balances.asMap().merge(account.getAccountId(), balance,
+                (cached, updated) -> updated.isNewerOrSame(cached) ? updated : cached);
+    }
+
+    /**
+     * Drops an account whose new state is not known, e.g. after a bulk JDBC update.
+     */
+    public void invalidate(Long accountId) {
+        balances.invalidate(accountId);
+    }
+
+    public CacheStats stats() {
+        return balances.stats();
+    }
+}
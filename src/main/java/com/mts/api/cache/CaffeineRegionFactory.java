@@ -0,0 +1,108 @@
+package com.mts.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache regions held in local Caffeine caches, so entity caching needs no
+ * JCache provider. Hibernate's own region and access-strategy support handles the concurrency
+ * semantics ({@code READ_WRITE} soft locks and so on); this only stores the entries.
+ * <p>
+ * Each entity region is bounded to the number of entries given by {@value #MAX_SIZE_SETTING}
+ * (default {@value #DEFAULT_MAX_SIZE}). The timestamps region is never evicted, as evicting it could
+ * serve stale query results.
+ */
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+    public static final String MAX_SIZE_SETTING = "hibernate.cache.caffeine.max_size";
+    static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private long maxSize;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+        maxSize = ConfigurationHelper.getLong(MAX_SIZE_SETTING, configValues, DEFAULT_MAX_SIZE);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(Caffeine.newBuilder().maximumSize(maxSize).build());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(Caffeine.newBuilder().maximumSize(maxSize).build());
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(Caffeine.newBuilder().build());
+    }
+
+    private static final class CaffeineStorageAccess implements DomainDataStorageAccess {
+        private final Cache<Object, Object> cache;
+
+        private CaffeineStorageAccess(Cache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            if (value == null) {
+                cache.invalidate(key);
+            } else {
+                cache.put(key, value);
+            }
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.getIfPresent(key) != null;
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.mts.api.commit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Funnels balance mutations from many callers into few database transactions.
+ * <p>
+ * Callers enqueue a mutation into a bounded ring buffer and block on its future. A single writer
+ * thread drains up to {@code maxBatch} mutations, or whatever arrived within {@code maxDelay} of the
+ * first one, runs them all in one transaction and completes every future after the commit.
+ * A mutation that throws (e.g. insufficient balance) only fails its own future, so it must throw
+ * before changing any entity. If the batch commit itself fails, each mutation is retried in its own
+ * transaction so one bad mutation cannot fail its neighbours.
+ */
+@Slf4j
+public class GroupCommitWriter {
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Pending<?>> queue;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    public GroupCommitWriter(TransactionTemplate transactionTemplate, int capacity, int maxBatch, Duration maxDelay) {
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    public synchronized void start() {
+        if (writer == null) {
+            running = true;
+            writer = new Thread(this::drainLoop, "group-commit-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Stops the writer after it has committed what was queued. Mutations it did not take, because
+     * they raced with the shutdown or the writer did not stop in time, are failed.
+     */
+    public void shutdown() {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Pending<?> pending = queue.poll(); pending != null; pending = queue.poll()) {
+            pending.future.completeExceptionally(notRunning());
+        }
+    }
+
+    /**
+     * Runs {@code mutation} in the next group transaction and waits for it to commit.
+     * Exceptions thrown by the mutation, or by committing it on its own, are rethrown to the caller.
+     */
+    public <T> T submit(Supplier<T> mutation) {
+        if (!running) {
+            throw notRunning();
+        }
+        Pending<T> pending = new Pending<>(mutation);
+        try {
+            while (!queue.offer(pending, 10, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    throw notRunning();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while enqueueing mutation", e);
+        }
+        // the writer may have stopped since the check above; unless it or shutdown took the mutation,
+        // nobody ever will
+        if (!running && queue.remove(pending)) {
+            throw notRunning();
+        }
+        try {
+            return pending.future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static IllegalStateException notRunning() {
+        return new IllegalStateException("group commit writer is not running");
+    }
+
+    private void drainLoop() {
+        List<Pending<?>> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<?> first = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("group commit failed", e);
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending<?>> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(Pending::run));
+        } catch (RuntimeException e) {
+            log.warn("group commit of {} mutations failed, committing them one by one", batch.size(), e);
+            for (Pending<?> pending : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> pending.run());
+                } catch (RuntimeException individual) {
+                    pending.fail(individual);
+                }
+            }
+        }
+        batch.forEach(Pending::complete);
+    }
+
+    private static final class Pending<T> {
+        private final Supplier<T> mutation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private RuntimeException error;
+
+        private Pending(Supplier<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        private void run() {
+            try {
+                result = mutation.get();
+                error = null;
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+
+        private void fail(RuntimeException e) {
+            error = e;
+        }
+
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
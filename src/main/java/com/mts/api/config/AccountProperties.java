@@ -0,0 +1,210 @@
+package com.mts.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for the account engine, bound from {@code mts.account.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "mts.account")
+public class AccountProperties {
+
+    /**
+     * Which {@link com.mts.api.service.AccountManagementService} implementation serves requests.
+     */
+    private Engine engine = Engine.JPA;
+
+    private final Ledger ledger = new Ledger();
+
+    private final Sharded sharded = new Sharded();
+
+    private final Locking locking = new Locking();
+
+    private final Batch batch = new Batch();
+
+    /**
+     * How the JPA engine commits balance changes.
+     */
+    private WriteMode writeMode = WriteMode.DIRECT;
+
+    private final GroupCommit groupCommit = new GroupCommit();
+
+    private final Cache cache = new Cache();
+
+    private final Reactive reactive = new Reactive();
+
+    private final Export export = new Export();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Hold hold = new Hold();
+
+    public enum Engine {
+        /**
+         * Every operation is a read-modify-write against {@code AccountRepository}.
+         */
+        JPA,
+        /**
+         * Balances live in memory and are written behind to {@code AccountRepository}.
+         */
+        LEDGER,
+        /**
+         * Like {@code LEDGER}, but accounts are partitioned across single-threaded shards.
+         */
+        SHARDED
+    }
+
+    public enum TransferMode {
+        /**
+         * Withdraw and deposit run in one database transaction without application-level locking.
+         */
+        TRANSACTIONAL,
+        /**
+         * Account stripes are locked in a global order around the transaction.
+         */
+        ORDERED_LOCK
+    }
+
+    public enum LockingStrategy {
+        /**
+         * Rely on the {@code @Version} check at commit and retry conflicting transactions.
+         */
+        OPTIMISTIC,
+        /**
+         * Lock account rows with {@code SELECT ... FOR UPDATE} before changing them.
+         */
+        PESSIMISTIC
+    }
+
+    public enum WriteMode {
+        /**
+         * Every operation commits its own transaction on the calling thread.
+         */
+        DIRECT,
+        /**
+         * Operations are queued and committed in batches by a single writer thread.
+         */
+        GROUP_COMMIT
+    }
+
+    @Data
+    public static class Ledger {
+        /**
+         * How often dirty balances are written behind to the database.
+         */
+        private Duration flushInterval = Duration.ofMillis(50);
+        /**
+         * Maximum number of accounts persisted in a single write-behind transaction.
+         */
+        private int flushBatchSize = 500;
+    }
+
+    @Data
+    public static class Sharded {
+        /**
+         * Number of shard threads; each owns the accounts whose id hashes to it.
+         */
+        private int shards = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Data
+    public static class Locking {
+        private TransferMode transferMode = TransferMode.TRANSACTIONAL;
+        /**
+         * Size of the striped lock table, rounded up to a power of two.
+         */
+        private int stripes = 1024;
+        private LockingStrategy strategy = LockingStrategy.OPTIMISTIC;
+        /**
+         * How many times an optimistic transaction is retried after a version conflict before giving up.
+         */
+        private int maxRetries = 3;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * Number of transfers settled per database transaction.
+         */
+        private int chunkSize = 1000;
+    }
+
+    @Data
+    public static class GroupCommit {
+        /**
+         * Capacity of the mutation ring buffer; callers block when it is full.
+         */
+        private int capacity = 8192;
+        /**
+         * Most mutations committed in one transaction.
+         */
+        private int maxBatch = 256;
+        /**
+         * Longest time the writer waits after the first queued mutation before committing.
+         */
+        private Duration maxDelay = Duration.ofNanos(200_000);
+    }
+
+    @Data
+    public static class Cache {
+        /**
+         * Most account balances kept in the read-through cache.
+         */
+        private long maxSize = 100_000;
+        /**
+         * Optional bound on how long a balance is served before it is reloaded.
+         */
+        private Duration expireAfterWrite;
+    }
+
+    @Data
+    public static class Reactive {
+        /**
+         * Threads running blocking account work for the reactive endpoints.
+         */
+        private int threads = 16;
+        /**
+         * Tasks waiting for a thread before new requests are rejected with 503.
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    @Data
+    public static class Export {
+        /**
+         * Rows the JDBC driver fetches per round trip while streaming an export.
+         */
+        private int fetchSize = 1000;
+    }
+
+    @Data
+    public static class Bulk {
+        /**
+         * Accounts inserted per transaction by a bulk upload; inserts are sent in JDBC batches.
+         */
+        private int chunkSize = 1000;
+    }
+
+    @Data
+    public static class Hold {
+        /**
+         * How long a hold lasts when the request does not say.
+         */
+        private Duration defaultTtl = Duration.ofHours(1);
+        /**
+         * Resolution of hold expiry.
+         */
+        private Duration tick = Duration.ofMillis(100);
+        /**
+         * Buckets in the expiry timer wheel, rounded up to a power of two; one turn covers {@code tick} times this.
+         */
+        private int wheelSize = 512;
+        /**
+         * Delay before an expired hold whose release failed is released again.
+         */
+        private Duration retryDelay = Duration.ofSeconds(5);
+    }
+}
@@ -1,13 +1,57 @@
 package com.mts.api.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.commit.GroupCommitWriter;
+import com.mts.api.locking.StripedLocks;
+import com.mts.api.timer.TimerWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties({AccountProperties.class, JournalProperties.class, IdempotencyProperties.class,
+        SnapshotProperties.class, WireProperties.class})
 public class AppConfig {
     @Bean
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
     }
+
+    @Bean
+    public StripedLocks stripedLocks(AccountProperties accountProperties, MeterRegistry meterRegistry) {
+        return new StripedLocks(accountProperties.getLocking().getStripes(), meterRegistry.timer(StripedLocks.WAIT_METRIC));
+    }
+
+    /**
+     * Bounded pool for the blocking work behind the reactive endpoints and hold expiry; a full queue
+     * rejects tasks instead of growing.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler accountScheduler(AccountProperties accountProperties) {
+        AccountProperties.Reactive reactive = accountProperties.getReactive();
+        return Schedulers.newBoundedElastic(reactive.getThreads(), reactive.getQueueCapacity(), "account-io");
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public GroupCommitWriter groupCommitWriter(TransactionTemplate transactionTemplate, AccountProperties accountProperties) {
+        AccountProperties.GroupCommit groupCommit = accountProperties.getGroupCommit();
+        GroupCommitWriter writer = new GroupCommitWriter(transactionTemplate, groupCommit.getCapacity(),
+                groupCommit.getMaxBatch(), groupCommit.getMaxDelay());
+        if (accountProperties.getWriteMode() == AccountProperties.WriteMode.GROUP_COMMIT) {
+            writer.start();
+        }
+        return writer;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public TimerWheel holdTimer(AccountProperties accountProperties) {
+        AccountProperties.Hold hold = accountProperties.getHold();
+        return new TimerWheel("hold-expiry", hold.getTick(), hold.getWheelSize());
+    }
 }
@@ -0,0 +1,26 @@
+package com.mts.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling, bound from {@code mts.idempotency.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "mts.idempotency")
+public class IdempotencyProperties {
+    /**
+     * Most keys remembered in memory; the least valuable are evicted beyond this.
+     */
+    private long maxEntries = 100_000;
+    /**
+     * How long a key is remembered after its first use.
+     */
+    private Duration ttl = Duration.ofHours(24);
+    /**
+     * Also record outcomes in the database so retries are recognized after a restart.
+     */
+    private boolean persistent = false;
+}
@@ -0,0 +1,26 @@
+package com.mts.api.config;
+
+import com.mts.api.journal.MappedFileJournal;
+import com.mts.api.journal.TransactionJournal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class JournalConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "mts.journal", name = "enabled", havingValue = "true")
+    public MappedFileJournal transactionJournal(JournalProperties journalProperties) {
+        return new MappedFileJournal(Paths.get(journalProperties.getDirectory()), journalProperties.getSegmentSize(),
+                journalProperties.getFsyncPolicy(), journalProperties.getFsyncInterval());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "mts.journal", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public TransactionJournal disabledTransactionJournal() {
+        return TransactionJournal.DISABLED;
+    }
+}
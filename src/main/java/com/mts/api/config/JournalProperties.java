@@ -0,0 +1,31 @@
+package com.mts.api.config;
+
+import com.mts.api.journal.FsyncPolicy;
+import com.mts.api.journal.RecoveryMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Transaction journal settings, bound from {@code mts.journal.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "mts.journal")
+public class JournalProperties {
+    private boolean enabled = false;
+    private String directory = "journal";
+    /**
+     * Size of each memory-mapped segment file in bytes.
+     */
+    private int segmentSize = 64 * 1024 * 1024;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.GROUP_COMMIT;
+    /**
+     * Upper bound between forces for {@code periodic}, idle wake-up for {@code group_commit}.
+     */
+    private Duration fsyncInterval = Duration.ofMillis(10);
+    /**
+     * Starting balances of the in-memory engines when the journal and the database disagree.
+     */
+    private RecoveryMode recovery = RecoveryMode.VERIFY;
+}
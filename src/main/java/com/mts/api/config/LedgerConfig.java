@@ -0,0 +1,41 @@
+package com.mts.api.config;
+
+import com.mts.api.journal.TransactionJournal;
+import com.mts.api.ledger.Ledger;
+import com.mts.api.ledger.LedgerAccount;
+import com.mts.api.ledger.WriteBehindStore;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.snapshot.BalanceSnapshotter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@ConditionalOnProperty(prefix = "mts.account", name = "engine", havingValue = "ledger")
+public class LedgerConfig {
+
+    /**
+     * Seeds the ledger with the balances recovered from the latest snapshot and the transaction
+     * journal, if one is enabled and agrees with the database.
+     */
+    @Bean
+    public Ledger ledger(JournalProperties journalProperties, AccountRepository accountRepository,
+                         TransactionJournal transactionJournal,
+                         ObjectProvider<BalanceSnapshotter> balanceSnapshotter) {
+        Ledger ledger = new Ledger();
+        SnapshotConfig.recoverBalances(journalProperties, accountRepository, transactionJournal, balanceSnapshotter)
+                .forEach((accountId, balance) -> ledger.put(new LedgerAccount(accountId, null, balance)));
+        return ledger;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public WriteBehindStore writeBehindStore(AccountRepository accountRepository,
+                                             TransactionTemplate transactionTemplate,
+                                             AccountProperties accountProperties) {
+        AccountProperties.Ledger ledger = accountProperties.getLedger();
+        return new WriteBehindStore(accountRepository, transactionTemplate,
+                ledger.getFlushInterval(), ledger.getFlushBatchSize());
+    }
+}
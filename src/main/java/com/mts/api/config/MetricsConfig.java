@@ -0,0 +1,31 @@
+package com.mts.api.config;
+
+import com.mts.api.metrics.TimedDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Wraps every data source in a {@link TimedDataSource}. Static, so the post-processor is
+     * registered without initializing this configuration early.
+     */
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource((DataSource) bean, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+}
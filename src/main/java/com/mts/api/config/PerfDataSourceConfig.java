@@ -0,0 +1,48 @@
+package com.mts.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Connection pool sizing of the {@code perf} profile.
+ * <p>
+ * Unless {@code mts.datasource.pool-size} is set, the pool gets {@code cores * 2 + 1} connections:
+ * enough to keep every core busy while as many connections wait on I/O, and no more, since extra
+ * connections only add contention inside the database. The pool is fixed-size so it never pays for
+ * opening connections under load.
+ */
+@Slf4j
+@Configuration
+@Profile("perf")
+public class PerfDataSourceConfig {
+    static final String POOL_SIZE = "mts.datasource.pool-size";
+
+    /**
+     * Static, so the post-processor is registered without initializing this configuration early.
+     */
+    @Bean
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    int size = environment.getProperty(POOL_SIZE, Integer.class, poolSize(Runtime.getRuntime().availableProcessors()));
+                    dataSource.setMaximumPoolSize(size);
+                    dataSource.setMinimumIdle(size);
+                    log.info("connection pool {} sized to {} connections", beanName, size);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int poolSize(int cores) {
+        return cores * 2 + 1;
+    }
+}
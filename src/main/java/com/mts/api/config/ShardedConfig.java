@@ -0,0 +1,42 @@
+package com.mts.api.config;
+
+import com.mts.api.journal.TransactionJournal;
+import com.mts.api.ledger.LedgerAccount;
+import com.mts.api.ledger.WriteBehindStore;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.shard.ShardedLedger;
+import com.mts.api.snapshot.BalanceSnapshotter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@ConditionalOnProperty(prefix = "mts.account", name = "engine", havingValue = "sharded")
+public class ShardedConfig {
+
+    /**
+     * Seeds every shard with the balances recovered from the latest snapshot and the transaction
+     * journal, if one is enabled and agrees with the database.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ShardedLedger shardedLedger(AccountProperties accountProperties, JournalProperties journalProperties,
+                                       AccountRepository accountRepository, TransactionJournal transactionJournal,
+                                       ObjectProvider<BalanceSnapshotter> balanceSnapshotter) {
+        ShardedLedger shardedLedger = new ShardedLedger(accountProperties.getSharded().getShards());
+        SnapshotConfig.recoverBalances(journalProperties, accountRepository, transactionJournal, balanceSnapshotter)
+                .forEach((accountId, balance) -> shardedLedger.shardOf(accountId)
+                        .submit(shard -> shard.install(new LedgerAccount(accountId, null, balance))).join());
+        return shardedLedger;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public WriteBehindStore writeBehindStore(AccountRepository accountRepository,
+                                             TransactionTemplate transactionTemplate,
+                                             AccountProperties accountProperties) {
+        AccountProperties.Ledger ledger = accountProperties.getLedger();
+        return new WriteBehindStore(accountRepository, transactionTemplate,
+                ledger.getFlushInterval(), ledger.getFlushBatchSize());
+    }
+}
@@ -0,0 +1,83 @@
+package com.mts.api.config;
+
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.journal.RecoveryMode;
+import com.mts.api.journal.TransactionJournal;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.snapshot.BalanceSnapshotter;
+import com.mts.api.snapshot.SnapshotStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "mts.journal", name = "enabled", havingValue = "true")
+public class SnapshotConfig {
+
+    /**
+     * A final checkpoint is written on shutdown, before the journal is closed.
+     */
+    @Bean(destroyMethod = "checkpoint")
+    @ConditionalOnProperty(prefix = "mts.snapshot", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public BalanceSnapshotter balanceSnapshotter(TransactionJournal transactionJournal,
+                                                 SnapshotProperties snapshotProperties) {
+        return new BalanceSnapshotter(transactionJournal,
+                new SnapshotStore(Paths.get(snapshotProperties.getDirectory()), snapshotProperties.getRetain()));
+    }
+
+    /**
+     * Balances in minor units to seed an in-memory engine with; accounts left out are loaded from the
+     * database on first use.
+     * <p>
+     * The journal balances are the newest snapshot plus the journal after it, or the whole journal when
+     * snapshots are disabled. They are only complete for accounts created while the journal was on: an
+     * older account would come back with just the sum of its journaled movements. The database, on the
+     * other hand, is behind the journal after a crash of an engine that writes it behind. So unless
+     * {@code mts.journal.recovery} names a source, the two are compared first and startup fails on any
+     * account they disagree on.
+     */
+    static Map<Long, Long> recoverBalances(JournalProperties journalProperties, AccountRepository accountRepository,
+                                           TransactionJournal transactionJournal,
+                                           ObjectProvider<BalanceSnapshotter> balanceSnapshotter) {
+        if (journalProperties.getRecovery() == RecoveryMode.DATABASE) {
+            return Collections.emptyMap();
+        }
+        BalanceSnapshotter snapshotter = balanceSnapshotter.getIfAvailable();
+        Map<Long, Long> balances = snapshotter != null ? snapshotter.recover() : transactionJournal.replayBalances();
+        if (journalProperties.getRecovery() == RecoveryMode.VERIFY && !balances.isEmpty()) {
+            verify(balances, accountRepository.findAllBalances());
+        }
+        return balances;
+    }
+
+    private static void verify(Map<Long, Long> balances, List<AccountBalance> stored) {
+        Map<Long, Long> unmatched = new HashMap<>(balances);
+        int disagreements = 0;
+        String example = null;
+        for (AccountBalance account : stored) {
+            Long journaled = unmatched.remove(account.getAccountId());
+            if (journaled != null && journaled != account.getBalance().units()) {
+                disagreements++;
+                example = "account " + account.getAccountId() + " has " + Money.ofUnits(journaled)
+                        + " in the journal and " + account.getBalance() + " in the database";
+            }
+        }
+        if (!unmatched.isEmpty()) {
+            disagreements += unmatched.size();
+            example = "account " + unmatched.keySet().iterator().next() + " is only in the journal";
+        }
+        if (disagreements > 0) {
+            throw new IllegalStateException("journal and database disagree on " + disagreements
+                    + " accounts, e.g. " + example + "; set mts.journal.recovery to journal or database"
+                    + " to start from that source");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mts.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Balance snapshot settings, bound from {@code mts.snapshot.*}. Snapshots are only taken while the
+ * transaction journal is enabled.
+ */
+@Data
+@ConfigurationProperties(prefix = "mts.snapshot")
+public class SnapshotProperties {
+    private boolean enabled = true;
+    private String directory = "snapshots";
+    /**
+     * Delay between checkpoints, in ISO-8601 form since it also drives the scheduler.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+    /**
+     * Number of snapshot files kept; older ones are deleted after each checkpoint.
+     */
+    private int retain = 2;
+}
@@ -0,0 +1,38 @@
+package com.mts.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Serves requests on virtual threads when {@code mts.server.virtual-threads} is set and the JDK
+ * supports them (21+). Tomcat then starts one virtual thread per request instead of borrowing from
+ * its bounded worker pool, so blocking JDBC calls park the virtual thread and free the carrier.
+ * <p>
+ * Locks on the request path ({@code StripedLocks}, {@code GroupCommitWriter}, the journal) are
+ * {@code ReentrantLock}s, which do not pin the carrier the way {@code synchronized} does.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "mts.server", name = "virtual-threads", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadExecutorCustomizer() {
+        Optional<ExecutorService> executor = VirtualThreads.newExecutor("http-vt-");
+        if (!executor.isPresent()) {
+            log.warn("mts.server.virtual-threads is set but Java {} has no virtual threads, using the platform thread pool",
+                    System.getProperty("java.version"));
+            return factory -> {
+            };
+        }
+        log.info("serving requests on virtual threads");
+        return factory -> factory.addProtocolHandlerCustomizers(protocol -> protocol.setExecutor(executor.get()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.mts.api.config;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to JDK 21 virtual threads from a Java 8 build. Everything goes through reflection, so the
+ * application still compiles and runs on older JDKs, where no executor is available.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return an executor starting one virtual thread per task, named {@code prefix} plus a counter,
+     * or empty before JDK 21
+     */
+    public static Optional<ExecutorService> newExecutor(String prefix) {
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Object ofVirtual = Thread.class.getMethod("ofVirtual").invoke(null);
+            ofVirtual = builder.getMethod("name", String.class, long.class).invoke(ofVirtual, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builder.getMethod("factory").invoke(ofVirtual);
+            Method executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) executor.invoke(null, factory));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
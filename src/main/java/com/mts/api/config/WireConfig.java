@@ -0,0 +1,22 @@
+package com.mts.api.config;
+
+import com.mts.api.service.AccountManagementService;
+import com.mts.api.wire.WireServer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+@Configuration
+@ConditionalOnProperty(prefix = "mts.wire", name = "enabled", havingValue = "true")
+public class WireConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public WireServer wireServer(AccountManagementService accountManagementService, WireProperties wireProperties)
+            throws IOException {
+        return new WireServer(accountManagementService, new InetSocketAddress(wireProperties.getPort()),
+                wireProperties.getThreads(), wireProperties.getMaxPipelined());
+    }
+}
@@ -0,0 +1,25 @@
+package com.mts.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Binary protocol listener settings, bound from {@code mts.wire.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "mts.wire")
+public class WireProperties {
+    private boolean enabled = false;
+    /**
+     * TCP port; 0 picks a free one.
+     */
+    private int port = 7070;
+    /**
+     * Workers executing requests; each connection uses at most one at a time.
+     */
+    private int threads = 16;
+    /**
+     * Requests a connection may have outstanding before the server stops reading from it.
+     */
+    private int maxPipelined = 256;
+}
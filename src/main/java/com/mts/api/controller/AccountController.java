@@ -1,44 +1,124 @@
 package com.mts.api.controller;
 
-import com.mts.api.domain.Account;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.dto.AccountDetails;
+import com.mts.api.dto.BatchTransferResponse;
+import com.mts.api.dto.BulkCreateResponse;
+import com.mts.api.dto.TransferRequest;
+import com.mts.api.idempotency.IdempotencyCache;
+import com.mts.api.service.AccountExportService;
 import com.mts.api.service.AccountManagementService;
+import com.mts.api.service.AccountQueryService;
+import com.mts.api.service.BatchTransferService;
+import com.mts.api.service.BulkAccountService;
+import com.mts.api.service.ExportFormat;
 import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 
-@Slf4j
+@Validated
 @RestController
 @AllArgsConstructor
 @RequestMapping("/account")
 public class AccountController {
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final AccountManagementService accountManagementService;
+    private final BatchTransferService batchTransferService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyCache idempotencyCache;
+    private final AccountExportService accountExportService;
+    private final BulkAccountService bulkAccountService;
+    private final AccountQueryService accountQueryService;
 
+    /**
+     * Returns the new account's id and balances; {@code GET /account/{accountId}/details} has the user.
+     */
     @PostMapping(value = "/create")
-    public Account createAccount(@RequestParam @Valid String email, @RequestParam String username) {
-        log.info("creating account for email {} ", email);
-        return accountManagementService.createAccount(email, username);
+    public AccountBalance createAccount(@RequestParam @Valid String email, @RequestParam String username,
+                                        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey, "create", Arrays.asList(email, username), AccountBalance.class,
+                () -> AccountBalance.of(accountManagementService.createAccount(email, username)));
+    }
+
+    /**
+     * Creates one account per row of an NDJSON or CSV ({@code email,username} header) body.
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public BulkCreateResponse createAccounts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                             InputStream body) throws IOException {
+        return bulkAccountService.createAccounts(ExportFormat.of(contentType), body);
+    }
+
+    @GetMapping(value = "/{accountId}")
+    public AccountBalance getBalance(@PathVariable Long accountId) {
+        return accountManagementService.getBalance(accountId);
+    }
+
+    @GetMapping(value = "/{accountId}/details")
+    public AccountDetails getDetails(@PathVariable Long accountId) {
+        return accountQueryService.details(accountId);
+    }
+
+    /**
+     * Streams every movement of the account with its running balance, oldest first.
+     */
+    @GetMapping(value = "/{accountId}/statement")
+    public ResponseEntity<StreamingResponseBody> statement(@PathVariable Long accountId,
+                                                           @RequestParam(defaultValue = "ndjson") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(accountExportService.statement(accountId, format));
     }
 
     @PutMapping(value = "/withdraw")
-    public void withdrawAccount(@RequestParam @Positive BigDecimal amount, @RequestParam Long accountId) {
-        log.info("withdrawal amount {} from account {} ", amount, accountId);
-        accountManagementService.withdrawMoney(amount, accountId);
+    public AccountBalance withdrawAccount(@RequestParam @Positive Money amount, @RequestParam Long accountId,
+                                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey, "withdraw", Arrays.asList(amount, accountId), AccountBalance.class,
+                () -> AccountBalance.of(accountManagementService.withdrawMoney(amount, accountId)));
     }
 
     @PutMapping(value = "/deposit")
-    public void depositAccount(@RequestParam @Positive BigDecimal amount, @RequestParam Long accountId) {
-        accountManagementService.depositMoney(amount, accountId);
+    public AccountBalance depositAccount(@RequestParam @Positive Money amount, @RequestParam Long accountId,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey, "deposit", Arrays.asList(amount, accountId), AccountBalance.class,
+                () -> AccountBalance.of(accountManagementService.depositMoney(amount, accountId)));
     }
 
     @PostMapping(value = "/transfer")
-    public void transferMoney(@RequestParam @Positive BigDecimal amount,
+    public void transferMoney(@RequestParam @Positive Money amount,
                               @RequestParam Long fromAccount,
-                              @RequestParam Long toAccount) {
-        accountManagementService.transferMoney(amount, fromAccount, toAccount);
+                              @RequestParam Long toAccount,
+                              @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        idempotencyCache.execute(idempotencyKey, "transfer", Arrays.asList(amount, fromAccount, toAccount), Void.class, () -> {
+            accountManagementService.transferMoney(amount, fromAccount, toAccount);
+            return null;
+        });
+    }
+
+    /**
+     * Accepts a JSON array of transfers. The body is parsed incrementally, so the array is never
+     * materialized in memory as a whole; a malformed item stops the batch there and is reported in the
+     * response together with the transfers that were applied before it.
+     */
+    @PostMapping(value = "/transfers/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchTransferResponse transferBatch(InputStream body) throws IOException {
+        try (MappingIterator<TransferRequest> transfers = objectMapper.readerFor(TransferRequest.class).readValues(body)) {
+            return batchTransferService.transfer(transfers);
+        }
     }
 
 }
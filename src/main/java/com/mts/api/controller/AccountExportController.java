@@ -0,0 +1,30 @@
+package com.mts.api.controller;
+
+import com.mts.api.service.AccountExportService;
+import com.mts.api.service.ExportFormat;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Bulk reads over all accounts. Responses are streamed from a database cursor and written on an
+ * async thread, so the servlet thread is released and memory does not grow with the result.
+ */
+@RestController
+@AllArgsConstructor
+@RequestMapping("/accounts")
+public class AccountExportController {
+
+    private final AccountExportService accountExportService;
+
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@RequestParam(defaultValue = "ndjson") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(accountExportService.exportAccounts(format));
+    }
+}
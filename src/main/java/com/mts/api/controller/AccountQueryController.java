@@ -0,0 +1,50 @@
+package com.mts.api.controller;
+
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountDetails;
+import com.mts.api.dto.AccountPage;
+import com.mts.api.service.AccountQueryService;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Account listing and lookup. Pass the {@code next*} fields of a page back as {@code afterId} and
+ * {@code afterBalance} to fetch the following one.
+ */
+@RestController
+@AllArgsConstructor
+@RequestMapping("/accounts")
+public class AccountQueryController {
+
+    private final AccountQueryService accountQueryService;
+
+    /**
+     * Lists accounts in id order, or in balance order when a balance range is given.
+     */
+    @GetMapping
+    public AccountPage listAccounts(@RequestParam(required = false) Long afterId,
+                                    @RequestParam(required = false) Money minBalance,
+                                    @RequestParam(required = false) Money maxBalance,
+                                    @RequestParam(required = false) Money afterBalance,
+                                    @RequestParam(defaultValue = "100") int limit) {
+        if (minBalance == null && maxBalance == null && afterBalance == null) {
+            return accountQueryService.pageById(afterId, limit);
+        }
+        return accountQueryService.pageByBalance(minBalance, maxBalance, afterBalance, afterId, limit);
+    }
+
+    @GetMapping(value = "/search", params = "email")
+    public List<AccountDetails> findByEmail(@RequestParam String email) {
+        return accountQueryService.findByEmail(email);
+    }
+
+    @GetMapping(value = "/search", params = "username")
+    public List<AccountDetails> findByUsername(@RequestParam String username) {
+        return accountQueryService.findByUsername(username);
+    }
+}
@@ -0,0 +1,19 @@
+package com.mts.api.controller;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds durations the way configuration properties do, {@code ?ttl=15m} as well as {@code ?ttl=PT15M}.
+ */
+@Component
+public class DurationConverter implements Converter<String, Duration> {
+
+    @Override
+    public Duration convert(String source) {
+        return DurationStyle.detectAndParse(source.trim());
+    }
+}
@@ -0,0 +1,19 @@
+package com.mts.api.controller;
+
+import com.mts.api.service.ExportFormat;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Binds {@code ?format=csv} as well as {@code ?format=CSV}; unknown formats are rejected with 400.
+ */
+@Component
+public class ExportFormatConverter implements Converter<String, ExportFormat> {
+
+    @Override
+    public ExportFormat convert(String source) {
+        return ExportFormat.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
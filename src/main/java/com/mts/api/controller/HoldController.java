@@ -0,0 +1,67 @@
+package com.mts.api.controller;
+
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.dto.Hold;
+import com.mts.api.idempotency.IdempotencyCache;
+import com.mts.api.service.HoldService;
+import lombok.AllArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.mts.api.controller.AccountController.IDEMPOTENCY_KEY;
+
+/**
+ * Authorization-style payments: place a hold, then capture or release it. Holds not settled within
+ * their {@code ttl} (e.g. {@code 15m} or {@code PT15M}) are released automatically.
+ */
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping("/account/holds")
+public class HoldController {
+
+    private final HoldService holdService;
+    private final IdempotencyCache idempotencyCache;
+
+    @PostMapping
+    public Hold placeHold(@RequestParam Long accountId, @RequestParam @Positive Money amount,
+                          @RequestParam(required = false) Duration ttl,
+                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey, "hold", Arrays.asList(accountId, amount, ttl), Hold.class,
+                () -> holdService.place(accountId, amount, ttl));
+    }
+
+    @GetMapping("/{holdId}")
+    public Hold getHold(@PathVariable String holdId) {
+        return holdService.get(holdId);
+    }
+
+    /**
+     * Captures {@code amount}, or the whole hold if it is omitted, and releases the rest.
+     */
+    @PostMapping("/{holdId}/capture")
+    public AccountBalance captureHold(@PathVariable String holdId, @RequestParam(required = false) @Positive Money amount,
+                                      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey, "capture", Arrays.asList(holdId, amount), AccountBalance.class,
+                () -> AccountBalance.of(holdService.capture(holdId, amount)));
+    }
+
+    @PostMapping("/{holdId}/release")
+    public AccountBalance releaseHold(@PathVariable String holdId,
+                                      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey, "release", Collections.singletonList(holdId), AccountBalance.class,
+                () -> AccountBalance.of(holdService.release(holdId)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.mts.api.controller;
+
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.service.ReactiveAccountService;
+import lombok.AllArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+
+import static com.mts.api.controller.AccountController.IDEMPOTENCY_KEY;
+
+/**
+ * Reactive variant of {@link AccountController}. Handlers return immediately and the servlet thread
+ * goes back to the pool; the response is written asynchronously once the {@link Mono} completes.
+ */
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping("/reactive/account")
+public class ReactiveAccountController {
+
+    private final ReactiveAccountService reactiveAccountService;
+
+    @PostMapping(value = "/create")
+    public Mono<AccountBalance> createAccount(@RequestParam @Valid String email, @RequestParam String username,
+                                              @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return reactiveAccountService.createAccount(email, username, idempotencyKey);
+    }
+
+    @GetMapping(value = "/{accountId}")
+    public Mono<AccountBalance> getBalance(@PathVariable Long accountId) {
+        return reactiveAccountService.getBalance(accountId);
+    }
+
+    @PutMapping(value = "/withdraw")
+    public Mono<AccountBalance> withdrawAccount(@RequestParam @Positive Money amount, @RequestParam Long accountId,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return reactiveAccountService.withdrawMoney(amount, accountId, idempotencyKey);
+    }
+
+    @PutMapping(value = "/deposit")
+    public Mono<AccountBalance> depositAccount(@RequestParam @Positive Money amount, @RequestParam Long accountId,
+                                               @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return reactiveAccountService.depositMoney(amount, accountId, idempotencyKey);
+    }
+
+    @PostMapping(value = "/transfer")
+    public Mono<Void> transferMoney(@RequestParam @Positive Money amount,
+                                    @RequestParam Long fromAccount,
+                                    @RequestParam Long toAccount,
+                                    @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return reactiveAccountService.transferMoney(amount, fromAccount, toAccount, idempotencyKey);
+    }
+}
@@ -3,22 +3,59 @@ package com.mts.api.domain;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import javax.persistence.*;
 import java.io.Serializable;
-import java.math.BigDecimal;
 
+/**
+ * {@code balance} is the ledger balance: every settled movement. {@code held} is the part of it
+ * reserved by open holds, and what the owner can still spend is the {@link #getAvailable() available}
+ * balance, the difference of the two.
+ * <p>
+ * The owning {@link User} is loaded lazily: balance operations never need it, so they read the
+ * account row alone. Queries that return accounts with their user fetch it explicitly.
+ */
 @Builder
 @Data
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_account_balance", columnList = "balance, accountId"),
+        @Index(name = "idx_account_user", columnList = "user_id_user_id")
+})
 public class Account implements Serializable {
+    /**
+     * Ids handed out per sequence round trip by the pooled optimizer; also the JDBC batch size.
+     */
+    public static final int ID_ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long accountId;
-    @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User userId;
-    private BigDecimal balance;
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
+    @Convert(converter = MoneyConverter.class)
+    private Money held;
+    @Version
+    private Long version;
+
+    /**
+     * @return the held amount; rows written before holds existed have none
+     */
+    public Money getHeld() {
+        return held == null ? Money.ZERO : held;
+    }
+
+    public Money getAvailable() {
+        return balance.minus(getHeld());
+    }
 }
@@ -0,0 +1,51 @@
+package com.mts.api.domain;
+
+import com.mts.api.exceptions.ApiErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Transient;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Outcome of a request made with an {@code Idempotency-Key}. A record that is not completed marks a
+ * request that started but never finished. A completed record holds either the serialized result or,
+ * when {@code errorStatus} is set, the message of the business error the request failed with.
+ */
+@Builder
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String>, Serializable {
+    @Id
+    private String id;
+    /**
+     * Hash of the operation and parameters the key was first used with.
+     */
+    private String fingerprint;
+    @Lob
+    private String response;
+    private Integer errorStatus;
+    @Enumerated(EnumType.STRING)
+    private ApiErrorCode errorReason;
+    private boolean completed;
+    private Instant createdAt;
+    @Transient
+    @Builder.Default
+    private boolean inserted = true;
+
+    @Override
+    public boolean isNew() {
+        return inserted;
+    }
+}
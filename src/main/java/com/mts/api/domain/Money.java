@@ -0,0 +1,134 @@
+package com.mts.api.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable amount of money held as a {@code long} count of minor units (cents) at a fixed
+ * {@link #SCALE} of two fraction digits.
+ * <p>
+ * Arithmetic and comparison are plain {@code long} operations with overflow checks. At the edges it
+ * is still a decimal: Jackson reads and writes it as a JSON number, {@link MoneyConverter} maps it to
+ * the decimal column, and request parameters are parsed by {@link #valueOf(String)} without going
+ * through {@link BigDecimal}.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long FACTOR = 100;
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    public static Money ofUnits(long units) {
+        return units == 0 ? ZERO : new Money(units);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has more than {@link #SCALE} fraction digits or overflows a long
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return ofUnits(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 12}, {@code -0.5} or {@code 1234.56}. Used by Spring to
+     * bind request parameters.
+     *
+     * @throws NumberFormatException if the text is not a decimal with at most {@link #SCALE} fraction digits
+     */
+    public static Money valueOf(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+        try {
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (c >= '0' && c <= '9' && fractionDigits < SCALE) {
+                    units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+                    if (fractionDigits < 0) {
+                        integerDigits++;
+                    } else {
+                        fractionDigits++;
+                    }
+                } else {
+                    throw new NumberFormatException("Invalid amount: " + text);
+                }
+            }
+            if (integerDigits == 0 && fractionDigits <= 0) {
+                throw new NumberFormatException("Invalid amount: " + text);
+            }
+            for (int scale = Math.max(fractionDigits, 0); scale < SCALE; scale++) {
+                units = Math.multiplyExact(units, 10);
+            }
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+        return ofUnits(negative ? -units : units);
+    }
+
+    public long units() {
+        return units;
+    }
+
+    public Money plus(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public boolean isPositive() {
+        return units > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return units < other.units;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Money && units == ((Money) o).units;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        long abs = Math.abs(units);
+        long fraction = abs % FACTOR;
+        return (units < 0 ? "-" : "") + abs / FACTOR + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
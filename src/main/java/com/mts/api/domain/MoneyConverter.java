@@ -0,0 +1,22 @@
+package com.mts.api.domain;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.math.BigDecimal;
+
+/**
+ * Stores {@link Money} in a decimal column, so the schema is unchanged.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
+}
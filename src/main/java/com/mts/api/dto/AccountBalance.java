@@ -0,0 +1,55 @@
+package com.mts.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import lombok.Value;
+
+/**
+ * Immutable balance view of an {@link Account}; safe to share between threads and cache. It is also
+ * the response of the money endpoints, which do not return the account's user.
+ */
+@Value
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AccountBalance {
+    Long accountId;
+    Money balance;
+    Money held;
+    @JsonIgnore
+    Long version;
+
+    public AccountBalance(Long accountId, Money balance, Money held, Long version) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.held = held == null ? Money.ZERO : held;
+        this.version = version;
+    }
+
+    /**
+     * Reads a serialized view, such as a replayed idempotent response; the version is not serialized.
+     */
+    @JsonCreator
+    static AccountBalance fromJson(@JsonProperty("accountId") Long accountId, @JsonProperty("balance") Money balance,
+                                   @JsonProperty("held") Money held) {
+        return new AccountBalance(accountId, balance, held, null);
+    }
+
+    public static AccountBalance of(Account account) {
+        return new AccountBalance(account.getAccountId(), account.getBalance(), account.getHeld(), account.getVersion());
+    }
+
+    public Money getAvailable() {
+        return balance.minus(held);
+    }
+
+    /**
+     * Whether this view is at least as recent as {@code other}. Views without a version (from an
+     * in-memory engine) are always considered current.
+     */
+    public boolean isNewerOrSame(AccountBalance other) {
+        return version == null || other.version == null || version >= other.version;
+    }
+}
@@ -0,0 +1,38 @@
+package com.mts.api.dto;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.domain.User;
+import lombok.Value;
+
+/**
+ * Full view of an {@link Account}: its balances together with the owning user.
+ */
+@Value
+public class AccountDetails {
+    Long accountId;
+    Long userId;
+    String username;
+    String email;
+    Money balance;
+    Money held;
+
+    public static AccountDetails of(AccountBalance balance, User user) {
+        return new AccountDetails(balance.getAccountId(), user.getUserId(), user.getUsername(), user.getEmail(),
+                balance.getBalance(), balance.getHeld());
+    }
+
+    /**
+     * View of an account whose user was fetched with it; the user fields are {@code null} if it has none.
+     */
+    public static AccountDetails of(Account account) {
+        AccountBalance balance = AccountBalance.of(account);
+        User user = account.getUserId();
+        return user != null ? of(balance, user)
+                : new AccountDetails(balance.getAccountId(), null, null, null, balance.getBalance(), balance.getHeld());
+    }
+
+    public Money getAvailable() {
+        return balance.minus(held);
+    }
+}
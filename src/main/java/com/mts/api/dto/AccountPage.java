@@ -0,0 +1,23 @@
+package com.mts.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mts.api.domain.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of accounts. The {@code next*} fields are the cursor for the following page and
+ * are absent on the last one.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AccountPage {
+    private List<AccountDetails> accounts;
+    private Long nextAfterId;
+    private Money nextAfterBalance;
+}
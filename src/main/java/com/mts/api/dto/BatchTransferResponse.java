@@ -0,0 +1,55 @@
+package com.mts.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTransferResponse {
+    private int applied;
+    private int rejected;
+    private int failed;
+    private int notRun;
+    private List<TransferResult> results;
+
+    public static BatchTransferResponse of(List<TransferResult> results) {
+        int applied = 0;
+        int rejected = 0;
+        int failed = 0;
+        int notRun = 0;
+        for (TransferResult result : results) {
+            switch (result.getStatus()) {
+                case APPLIED:
+                    applied++;
+                    break;
+                case REJECTED:
+                    rejected++;
+                    break;
+                case FAILED:
+                    failed++;
+                    break;
+                default:
+                    notRun++;
+            }
+        }
+        return new BatchTransferResponse(applied, rejected, failed, notRun, results);
+    }
+
+    /**
+     * Response for a body that could not be read past item {@code results.size() + unsettled}: the
+     * {@code unsettled} items read after the settled ones and the unreadable item are reported as not run,
+     * and nothing after it was read.
+     */
+    public static BatchTransferResponse unreadable(List<TransferResult> results, int unsettled) {
+        int unreadable = results.size() + unsettled;
+        for (int index = results.size(); index < unreadable; index++) {
+            results.add(TransferResult.notRun(index, "Not run: transfer " + unreadable + " is malformed"));
+        }
+        results.add(TransferResult.notRun(unreadable, "Malformed transfer; the batch was not read any further"));
+        return of(results);
+    }
+}
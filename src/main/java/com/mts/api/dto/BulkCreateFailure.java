@@ -0,0 +1,17 @@
+package com.mts.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row of a bulk account upload that was not created. For a chunk that failed in the database,
+ * {@code row} is its first row and the reason names the whole range.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateFailure {
+    private int row;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.mts.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk account upload. Only rows that were not created are listed individually.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateResponse {
+    private int created;
+    private int rejected;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private List<BulkCreateFailure> failures;
+}
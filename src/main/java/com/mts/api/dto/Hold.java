@@ -0,0 +1,32 @@
+package com.mts.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mts.api.domain.Money;
+import lombok.Value;
+
+/**
+ * Funds reserved on an account until they are captured, released or the hold expires.
+ */
+@Value
+public class Hold {
+    String holdId;
+    Long accountId;
+    Money amount;
+    /**
+     * Epoch millis after which the hold is released automatically.
+     */
+    long expiresAt;
+
+    /**
+     * Also reads a serialized hold, such as a replayed idempotent response.
+     */
+    @JsonCreator
+    public Hold(@JsonProperty("holdId") String holdId, @JsonProperty("accountId") Long accountId,
+                @JsonProperty("amount") Money amount, @JsonProperty("expiresAt") long expiresAt) {
+        this.holdId = holdId;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.expiresAt = expiresAt;
+    }
+}
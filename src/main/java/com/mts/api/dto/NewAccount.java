@@ -0,0 +1,16 @@
+package com.mts.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a bulk account upload.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NewAccount {
+    private String email;
+    private String username;
+}
@@ -0,0 +1,18 @@
+package com.mts.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferRequest {
+    private Long fromAccount;
+    private Long toAccount;
+    private BigDecimal amount;
+}
@@ -0,0 +1,39 @@
+package com.mts.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransferResult {
+    private int index;
+    private Status status;
+    private String reason;
+
+    public enum Status {
+        APPLIED,
+        REJECTED,
+        FAILED,
+        NOT_RUN
+    }
+
+    public static TransferResult applied(int index) {
+        return new TransferResult(index, Status.APPLIED, null);
+    }
+
+    public static TransferResult rejected(int index, String reason) {
+        return new TransferResult(index, Status.REJECTED, reason);
+    }
+
+    public static TransferResult failed(int index, String reason) {
+        return new TransferResult(index, Status.FAILED, reason);
+    }
+
+    public static TransferResult notRun(int index, String reason) {
+        return new TransferResult(index, Status.NOT_RUN, reason);
+    }
+}
@@ -8,6 +8,14 @@ public class ApiError extends RuntimeException {
         super(message);
     }
 
+    /**
+     * For expected business failures, which are part of normal control flow and fully described by
+     * their message; skipping the stack trace makes throwing them nearly free.
+     */
+    protected ApiError(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
     public ApiErrorCode reason() {
         return ApiErrorCode.GENERAL_EXCEPTION;
     }
@@ -15,4 +23,12 @@ public class ApiError extends RuntimeException {
     public HttpStatus httpStatus() {
         return HttpStatus.INTERNAL_SERVER_ERROR;
     }
+
+    /**
+     * Whether the same request may succeed when retried, so the failure is not its final outcome;
+     * server errors are, unless a subclass says otherwise.
+     */
+    public boolean isTransient() {
+        return httpStatus().is5xxServerError();
+    }
 }
@@ -1,9 +1,24 @@
 package com.mts.api.exceptions;
 
+/**
+ * Reason of an error response. The numeric code is what the binary protocol sends, so it is fixed
+ * per constant and must not change when constants are added or reordered.
+ */
 public enum ApiErrorCode {
-    BAD_REQUEST,
-    GENERAL_EXCEPTION,
-    TRANSACTION_ERROR,
-    VALIDATION_ERROR,
-    ACCOUNT_LIST_LIMIT_REACHED
+    BAD_REQUEST(0),
+    GENERAL_EXCEPTION(1),
+    TRANSACTION_ERROR(2),
+    VALIDATION_ERROR(3),
+    ACCOUNT_LIST_LIMIT_REACHED(4),
+    SERVICE_OVERLOADED(5);
+
+    private final int code;
+
+    ApiErrorCode(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
 }
@@ -1,6 +1,9 @@
 package com.mts.api.exceptions.handling;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,9 +15,16 @@ import javax.validation.ConstraintViolationException;
 @ControllerAdvice
 public class ApiErrorHandler  extends BaseErrorHandler {
 
+    public ApiErrorHandler(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        super(meterRegistry, objectMapper);
+    }
+
+    /**
+     * Request parameters rejected by method validation of a {@code @Validated} controller.
+     */
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<Object> handleConstraintViolation(ConstraintViolationException ex, WebRequest request) {
-        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+        return response(HttpStatus.BAD_REQUEST, ex.getMessage(), ApiErrorCode.VALIDATION_ERROR, ex);
     }
 
     @ExceptionHandler(ApiError.class)
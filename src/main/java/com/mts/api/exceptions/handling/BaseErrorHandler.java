@@ -2,11 +2,12 @@ package com.mts.api.exceptions.handling;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.mts.api.exceptions.ApiErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,10 +16,31 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 import static com.mts.api.exceptions.ApiErrorCode.GENERAL_EXCEPTION;
 import static com.mts.api.exceptions.ApiErrorCode.VALIDATION_ERROR;
 
+/**
+ * Renders every error as {@code {"error":{"status":..,"reason":..,"message":..}}}.
+ * <p>
+ * The error path is kept cheap because it runs hottest exactly when something is wrong: the body is
+ * assembled from a template pre-serialized per status and reason with only the message escaped into
+ * it, counters are resolved once, and each kind of error is logged at most
+ * {@value #LOGS_PER_SECOND} times a second, with the number of skipped occurrences on the next line.
+ */
 public abstract class BaseErrorHandler extends ResponseEntityExceptionHandler {
+    static final String ERRORS_METRIC = "mts.api.errors";
+    static final int LOGS_PER_SECOND = 10;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<Integer, ErrorKind> kinds = new ConcurrentHashMap<>();
+
+    protected BaseErrorHandler(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
 
     @Override
     protected ResponseEntity<Object> handleHttpMessageNotReadable(
@@ -48,18 +70,29 @@ public abstract class BaseErrorHandler extends ResponseEntityExceptionHandler {
     }
 
     ResponseEntity<Object> response(HttpStatus status, String message, ApiErrorCode code, Throwable ex) {
-        ObjectNode body = new ObjectMapper().createObjectNode();
-        body.putObject("error")
-                .put("status", status.value())
-                .put("reason", code.toString())
-                .put("message", message);
-
-        logger.error(ex.toString());
+        ErrorKind kind = kind(status, code);
+        kind.count();
+
+        long skipped = kind.tryLog();
+        if (skipped > 0) {
+            logger.error(ex + " (" + skipped + " similar errors not logged)");
+        } else if (skipped == 0) {
+            logger.error(ex.toString());
+        }
 
         if (logger.isDebugEnabled()) {
             logger.debug("request exception:", ex);
         }
 
-        return new ResponseEntity<>(body, status);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(kind.body(message));
+    }
+
+    private ErrorKind kind(HttpStatus status, ApiErrorCode code) {
+        Integer key = status.value() << 8 | code.ordinal();
+        ErrorKind kind = kinds.get(key);
+        return kind != null ? kind : kinds.computeIfAbsent(key,
+                k -> new ErrorKind(status, code, objectMapper, meterRegistry, LOGS_PER_SECOND));
     }
 }
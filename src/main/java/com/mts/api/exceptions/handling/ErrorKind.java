@@ -0,0 +1,127 @@
+package com.mts.api.exceptions.handling;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mts.api.exceptions.ApiErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Everything about an error response that depends only on its status and reason, computed once:
+ * the serialized body around the message, the error counter and a log rate window.
+ */
+final class ErrorKind {
+    private static final String PLACEHOLDER = "\u0001";
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+    private static final long LOG_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final Counter counter;
+    private final int logsPerWindow;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    ErrorKind(HttpStatus status, ApiErrorCode code, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+              int logsPerWindow) {
+        byte[] template = serialize(objectMapper, status, code);
+        byte[] placeholder = quoted(PLACEHOLDER);
+        int at = indexOf(template, placeholder);
+        this.prefix = slice(template, 0, at);
+        this.suffix = slice(template, at + placeholder.length, template.length);
+        this.counter = meterRegistry.counter(BaseErrorHandler.ERRORS_METRIC,
+                "reason", code.name(), "status", String.valueOf(status.value()));
+        this.logsPerWindow = logsPerWindow;
+    }
+
+    /**
+     * @return the JSON body for {@code message}, byte for byte what serializing the error node would give
+     */
+    byte[] body(String message) {
+        byte[] value = message == null ? NULL : quoted(message);
+        byte[] body = new byte[prefix.length + value.length + suffix.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(value, 0, body, prefix.length, value.length);
+        System.arraycopy(suffix, 0, body, prefix.length + value.length, suffix.length);
+        return body;
+    }
+
+    void count() {
+        counter.increment();
+    }
+
+    /**
+     * Admits at most {@code logsPerWindow} log lines per second for this kind of error.
+     *
+     * @return {@code -1} if this occurrence should not be logged, otherwise how many were skipped
+     * since the last one that was
+     */
+    long tryLog() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= LOG_WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            logged.set(0);
+        }
+        if (logged.incrementAndGet() <= logsPerWindow) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+
+    private static ObjectNode node(ObjectMapper objectMapper, HttpStatus status, ApiErrorCode code, String message) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error")
+                .put("status", status.value())
+                .put("reason", code.toString())
+                .put("message", message);
+        return body;
+    }
+
+    private static byte[] serialize(ObjectMapper objectMapper, HttpStatus status, ApiErrorCode code) {
+        try {
+            return objectMapper.writeValueAsBytes(node(objectMapper, status, code, PLACEHOLDER));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] quoted(String text) {
+        byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(text);
+        byte[] quoted = new byte[escaped.length + 2];
+        quoted[0] = '"';
+        System.arraycopy(escaped, 0, quoted, 1, escaped.length);
+        quoted[quoted.length - 1] = '"';
+        return quoted;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i <= bytes.length - part.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new IllegalStateException("error template has no message placeholder");
+    }
+
+    private static byte[] slice(byte[] bytes, int from, int to) {
+        byte[] slice = new byte[to - from];
+        System.arraycopy(bytes, from, slice, 0, slice.length);
+        return slice;
+    }
+}
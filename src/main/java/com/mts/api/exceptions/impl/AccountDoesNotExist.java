@@ -11,7 +11,7 @@ public class AccountDoesNotExist extends ApiError  {
     private final Long accountId;
 
     public AccountDoesNotExist(Long accountId) {
-        super(MESSAGE);
+        super(MESSAGE, false);
         this.accountId = accountId;
     }
 
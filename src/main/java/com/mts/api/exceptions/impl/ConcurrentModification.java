@@ -0,0 +1,38 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+public class ConcurrentModification extends ApiError {
+
+    private static final String MESSAGE = "Account was modified concurrently, retry the request";
+
+    private final Long accountId;
+
+    public ConcurrentModification(Long accountId) {
+        super(MESSAGE, false);
+        this.accountId = accountId;
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return ApiErrorCode.TRANSACTION_ERROR;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return HttpStatus.CONFLICT;
+    }
+
+    @Override
+    public boolean isTransient() {
+        return true;
+    }
+
+    @Override
+    public String getMessage() {
+        return super.getMessage() + ": " + accountId;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+public class HoldNotFound extends ApiError {
+
+    private static final String MESSAGE = "Hold does not exist or was already settled";
+
+    private final String holdId;
+
+    public HoldNotFound(String holdId) {
+        super(MESSAGE, false);
+        this.holdId = holdId;
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return ApiErrorCode.GENERAL_EXCEPTION;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    public String getMessage() {
+        return super.getMessage() + ": " + holdId;
+    }
+
+}
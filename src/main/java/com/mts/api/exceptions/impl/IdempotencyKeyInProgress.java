@@ -0,0 +1,38 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyInProgress extends ApiError {
+
+    private static final String MESSAGE = "A request with this idempotency key has no recorded outcome";
+
+    private final String key;
+
+    public IdempotencyKeyInProgress(String key) {
+        super(MESSAGE, false);
+        this.key = key;
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return ApiErrorCode.TRANSACTION_ERROR;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return HttpStatus.CONFLICT;
+    }
+
+    @Override
+    public boolean isTransient() {
+        return true;
+    }
+
+    @Override
+    public String getMessage() {
+        return super.getMessage() + ": " + key;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyReused extends ApiError {
+
+    private static final String MESSAGE = "The idempotency key was already used for a different request";
+
+    private final String key;
+
+    public IdempotencyKeyReused(String key) {
+        super(MESSAGE, false);
+        this.key = key;
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return ApiErrorCode.VALIDATION_ERROR;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return HttpStatus.UNPROCESSABLE_ENTITY;
+    }
+
+    @Override
+    public String getMessage() {
+        return super.getMessage() + ": " + key;
+    }
+
+}
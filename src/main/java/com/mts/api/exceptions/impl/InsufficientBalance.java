@@ -2,18 +2,17 @@ package com.mts.api.exceptions.impl;
 
 import com.mts.api.exceptions.ApiError;
 import com.mts.api.exceptions.ApiErrorCode;
+import com.mts.api.domain.Money;
 import org.springframework.http.HttpStatus;
 
-import java.math.BigDecimal;
-
 public class InsufficientBalance extends ApiError {
 
     private static final String MESSAGE = "There isn't enough balance";
 
-    private final BigDecimal amount;
+    private final Money amount;
 
-    public InsufficientBalance(BigDecimal amount) {
-        super(MESSAGE);
+    public InsufficientBalance(Money amount) {
+        super(MESSAGE, false);
         this.amount = amount;
     }
 
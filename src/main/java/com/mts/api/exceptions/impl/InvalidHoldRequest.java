@@ -0,0 +1,23 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+public class InvalidHoldRequest extends ApiError {
+
+    public InvalidHoldRequest(String message) {
+        super(message, false);
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return ApiErrorCode.BAD_REQUEST;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+
+}
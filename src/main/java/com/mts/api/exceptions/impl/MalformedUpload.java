@@ -0,0 +1,23 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+public class MalformedUpload extends ApiError {
+
+    public MalformedUpload(String message) {
+        super(message, false);
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return ApiErrorCode.VALIDATION_ERROR;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A business error read back from a persisted idempotency record; it answers with the status, reason
+ * and message of the error the original request failed with.
+ */
+public class ReplayedApiError extends ApiError {
+
+    private final HttpStatus status;
+    private final ApiErrorCode reason;
+
+    public ReplayedApiError(HttpStatus status, ApiErrorCode reason, String message) {
+        super(message, false);
+        this.status = status;
+        this.reason = reason;
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return reason;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return status;
+    }
+
+}
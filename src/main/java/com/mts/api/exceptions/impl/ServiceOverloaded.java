@@ -0,0 +1,25 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+public class ServiceOverloaded extends ApiError {
+
+    private static final String MESSAGE = "Too many requests in progress, retry later";
+
+    public ServiceOverloaded() {
+        super(MESSAGE, false);
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return ApiErrorCode.SERVICE_OVERLOADED;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.mts.api.exceptions.impl;
+
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import org.springframework.http.HttpStatus;
+
+public class StatementsUnavailable extends ApiError {
+
+    private static final String MESSAGE = "Statements need the transaction journal, which is disabled";
+
+    public StatementsUnavailable() {
+        super(MESSAGE, false);
+    }
+
+    @Override
+    public ApiErrorCode reason() {
+        return ApiErrorCode.GENERAL_EXCEPTION;
+    }
+
+    @Override
+    public HttpStatus httpStatus() {
+        return HttpStatus.NOT_IMPLEMENTED;
+    }
+
+}
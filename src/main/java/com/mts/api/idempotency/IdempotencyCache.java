@@ -0,0 +1,221 @@
+package com.mts.api.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mts.api.config.IdempotencyProperties;
+import com.mts.api.domain.IdempotencyRecord;
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.impl.IdempotencyKeyInProgress;
+import com.mts.api.exceptions.impl.IdempotencyKeyReused;
+import com.mts.api.exceptions.impl.ReplayedApiError;
+import com.mts.api.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests carrying an {@code Idempotency-Key}, so a retried request gets
+ * the original result instead of being executed again.
+ * <p>
+ * Outcomes live in a bounded, expiring in-memory cache; a repeated key costs one hash lookup.
+ * Concurrent duplicates wait for the first request instead of running in parallel. Each key is bound
+ * to a fingerprint of the operation and parameters it was first used with; reusing it for a different
+ * request fails with {@link IdempotencyKeyReused}. Final business failures ({@link ApiError}) are
+ * remembered like results; transient ones ({@link ApiError#isTransient()}, such as a concurrent
+ * modification or an overloaded service) and any other failure forget the key so the client may
+ * retry. With
+ * {@code mts.idempotency.persistent} outcomes, business failures included, are also stored in the
+ * database before and after execution, so a key seen before a crash is never executed twice.
+ */
+@Slf4j
+@Component
+public class IdempotencyCache {
+    private final Cache<String, Outcome> outcomes;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties idempotencyProperties;
+
+    public IdempotencyCache(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                            IdempotencyProperties idempotencyProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.idempotencyProperties = idempotencyProperties;
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getMaxEntries())
+                .expireAfterWrite(idempotencyProperties.getTtl())
+                .build();
+    }
+
+    /**
+     * Runs {@code action} once per {@code key}; a {@code null} key always runs it. {@code operation}
+     * and {@code parameters} identify the request, so a key may only be repeated with the same ones.
+     */
+    public <T> T execute(String key, String operation, List<?> parameters, Class<T> resultType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        Outcome outcome = new Outcome(fingerprint(operation, parameters));
+        Outcome previous = outcomes.asMap().putIfAbsent(key, outcome);
+        if (previous != null) {
+            if (!previous.fingerprint.equals(outcome.fingerprint)) {
+                throw new IdempotencyKeyReused(key);
+            }
+            return resultType.cast(await(previous.result));
+        }
+        try {
+            T result = idempotencyProperties.isPersistent()
+                    ? executePersistent(key, outcome.fingerprint, resultType, action) : action.get();
+            outcome.result.complete(result);
+            return result;
+        } catch (IdempotencyKeyReused e) {
+            outcomes.invalidate(key);
+            outcome.result.completeExceptionally(e);
+            throw e;
+        } catch (ApiError e) {
+            if (e.isTransient()) {
+                outcomes.invalidate(key);
+            }
+            outcome.result.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            outcomes.invalidate(key);
+            outcome.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long size() {
+        return outcomes.estimatedSize();
+    }
+
+    @Scheduled(fixedDelayString = "${mts.idempotency.purge-interval:PT10M}")
+    public void purgeExpiredRecords() {
+        if (idempotencyProperties.isPersistent()) {
+            int purged = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(idempotencyProperties.getTtl()));
+            log.debug("purged {} expired idempotency records", purged);
+        }
+    }
+
+    private <T> T executePersistent(String key, String fingerprint, Class<T> resultType, Supplier<T> action) {
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+        if (existing.isPresent()) {
+            return replay(existing.get(), fingerprint, resultType);
+        }
+        try {
+            idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                    .id(key)
+                    .fingerprint(fingerprint)
+                    .createdAt(Instant.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new IdempotencyKeyInProgress(key);
+        }
+        IdempotencyRecord.IdempotencyRecordBuilder completed = IdempotencyRecord.builder()
+                .id(key)
+                .fingerprint(fingerprint)
+                .completed(true)
+                .createdAt(Instant.now())
+                .inserted(false);
+        T result;
+        try {
+            result = action.get();
+        } catch (ApiError e) {
+            if (e.isTransient()) {
+                idempotencyRecordRepository.deleteById(key);
+                throw e;
+            }
+            idempotencyRecordRepository.save(completed
+                    .response(e.getMessage())
+                    .errorStatus(e.httpStatus().value())
+                    .errorReason(e.reason())
+                    .build());
+            throw e;
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.deleteById(key);
+            throw e;
+        }
+        idempotencyRecordRepository.save(completed
+                .response(write(result))
+                .build());
+        return result;
+    }
+
+    private <T> T replay(IdempotencyRecord record, String fingerprint, Class<T> resultType) {
+        if (record.getFingerprint() != null && !record.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReused(record.getId());
+        }
+        if (!record.isCompleted()) {
+            throw new IdempotencyKeyInProgress(record.getId());
+        }
+        if (record.getErrorStatus() != null) {
+            throw new ReplayedApiError(HttpStatus.valueOf(record.getErrorStatus()), record.getErrorReason(),
+                    record.getResponse());
+        }
+        try {
+            return objectMapper.readValue(record.getResponse(), resultType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String write(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hash of the operation and its parameters, in order, by their string form.
+     */
+    private static String fingerprint(String operation, List<?> parameters) {
+        StringBuilder request = new StringBuilder(operation);
+        for (Object parameter : parameters) {
+            request.append('\n').append(parameter);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(request.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> outcome) {
+        try {
+            return outcome.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Outcome {
+        final String fingerprint;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Outcome(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.mts.api.journal;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map from account to the sequences of the journal records that move it, so one account's
+ * history can be read without scanning the journal. Costs 8 bytes per record and side of a transfer.
+ */
+final class AccountIndex {
+    private static final long[] NONE = new long[0];
+
+    private final ConcurrentHashMap<Long, Postings> postings = new ConcurrentHashMap<>();
+
+    void add(JournalRecord record) {
+        add(record.getSequence(), record.getType(), record.getAccountId(), record.getCounterparty());
+    }
+
+    void add(long sequence, RecordType type, long accountId, long counterparty) {
+        postings.computeIfAbsent(accountId, id -> new Postings()).add(sequence);
+        if (type == RecordType.TRANSFER && counterparty != accountId) {
+            postings.computeIfAbsent(counterparty, id -> new Postings()).add(sequence);
+        }
+    }
+
+    /**
+     * @return a copy of the sequences indexed for {@code accountId} so far, in ascending order
+     */
+    long[] sequencesOf(long accountId) {
+        Postings found = postings.get(accountId);
+        return found == null ? NONE : found.toArray();
+    }
+
+    private static final class Postings {
+        private long[] sequences = new long[4];
+        private int size;
+
+        synchronized void add(long sequence) {
+            if (size == sequences.length) {
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            sequences[size++] = sequence;
+        }
+
+        synchronized long[] toArray() {
+            return Arrays.copyOf(sequences, size);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mts.api.journal;
+
+public enum FsyncPolicy {
+    /**
+     * Every append is forced to disk before it returns.
+     */
+    PER_WRITE,
+    /**
+     * Appends wait until a background flusher has forced them; concurrent appends share one fsync.
+     */
+    GROUP_COMMIT,
+    /**
+     * Appends return immediately; a background flusher forces the journal every fsync interval.
+     */
+    PERIODIC
+}
@@ -0,0 +1,93 @@
+package com.mts.api.journal;
+
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * One balance movement, stored as a fixed-width 48 byte slot of a segment:
+ * <pre>
+ *  0  sequence       long
+ *  8  timestamp      long  (epoch millis)
+ * 16  type           int   ({@link RecordType} ordinal)
+ * 20  accountId      long
+ * 28  counterparty   long  (credited account of a transfer, otherwise 0)
+ * 36  amount         long  (minor units)
+ * 44  crc32          int   (over bytes 0..43)
+ * </pre>
+ * A zero sequence marks the unwritten tail of a segment.
+ */
+@Value
+public class JournalRecord {
+    public static final int SIZE = 48;
+    private static final int PAYLOAD = SIZE - Integer.BYTES;
+
+    long sequence;
+    long timestamp;
+    RecordType type;
+    long accountId;
+    long counterparty;
+    long amount;
+
+    /**
+     * Whether this record moves {@code accountId}, as the account it names or as the credited side of
+     * a transfer.
+     */
+    public boolean touches(long accountId) {
+        return this.accountId == accountId || type == RecordType.TRANSFER && counterparty == accountId;
+    }
+
+    static void write(ByteBuffer buffer, CRC32 crc, long sequence, long timestamp, RecordType type,
+                      long accountId, long counterparty, long amount) {
+        int start = buffer.position();
+        buffer.putLong(sequence)
+                .putLong(timestamp)
+                .putInt(type.ordinal())
+                .putLong(accountId)
+                .putLong(counterparty)
+                .putLong(amount);
+        buffer.putInt(checksum(buffer, crc, start));
+    }
+
+    /**
+     * Reads the record at the buffer's position and advances past it.
+     *
+     * @return the record, or {@code null} at the end of written data or on a torn write
+     */
+    static JournalRecord read(ByteBuffer buffer, CRC32 crc) {
+        if (buffer.remaining() < SIZE) {
+            return null;
+        }
+        int start = buffer.position();
+        long sequence = buffer.getLong();
+        if (sequence == 0) {
+            buffer.position(start);
+            return null;
+        }
+        long timestamp = buffer.getLong();
+        int type = buffer.getInt();
+        long accountId = buffer.getLong();
+        long counterparty = buffer.getLong();
+        long amount = buffer.getLong();
+        int expected = checksum(buffer, crc, start);
+        if (buffer.getInt() != expected || type < 0 || type >= RecordType.values().length) {
+            buffer.position(start);
+            return null;
+        }
+        return new JournalRecord(sequence, timestamp, RecordType.of(type), accountId, counterparty, amount);
+    }
+
+    /**
+     * Checksums the {@link #PAYLOAD} bytes from {@code start}; leaves the position right after them.
+     */
+    private static int checksum(ByteBuffer buffer, CRC32 crc, int start) {
+        int limit = buffer.limit();
+        buffer.position(start);
+        buffer.limit(start + PAYLOAD);
+        crc.reset();
+        crc.update(buffer);
+        buffer.limit(limit);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,136 @@
+package com.mts.api.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A pre-allocated, memory-mapped journal file holding a fixed number of {@link JournalRecord}s.
+ * Segment files are named after the sequence of their first record so they sort in journal order.
+ */
+final class JournalSegment {
+    static final String SUFFIX = ".seg";
+
+    private final Path path;
+    private final long firstSequence;
+    private final MappedByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+
+    private JournalSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence(path);
+        this.buffer = buffer;
+    }
+
+    static Path fileName(Path directory, long firstSequence) {
+        return directory.resolve(String.format("journal-%020d%s", firstSequence, SUFFIX));
+    }
+
+    static long firstSequence(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.length() - SUFFIX.length()));
+    }
+
+    static JournalSegment open(Path path, int size) {
+        try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+            return new JournalSegment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot map journal segment " + path, e);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    boolean hasRoom() {
+        return buffer.remaining() >= JournalRecord.SIZE;
+    }
+
+    void append(long sequence, long timestamp, RecordType type, long accountId, long counterparty, long amount) {
+        JournalRecord.write(buffer, crc, sequence, timestamp, type, accountId, counterparty, amount);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Reads every valid record from the start of the segment and leaves the write position after the
+     * last one, so appending continues where a previous process stopped.
+     *
+     * @return the sequence of the last record read, or 0 for an empty segment
+     */
+    long recover(Consumer<JournalRecord> consumer) {
+        buffer.position(0);
+        long last = 0;
+        JournalRecord record;
+        while ((record = JournalRecord.read(buffer, crc)) != null) {
+            consumer.accept(record);
+            last = record.getSequence();
+        }
+        return last;
+    }
+
+    /**
+     * Like {@link #recover(Consumer)}, but only feeds records after {@code afterSequence}. Sequences
+     * are dense within a segment, so reading starts directly at the slot of the next one; if that
+     * slot does not hold it the whole segment is scanned instead.
+     */
+    void recover(long afterSequence, Consumer<JournalRecord> consumer) {
+        long slot = afterSequence + 1 - firstSequence;
+        if (slot * JournalRecord.SIZE >= buffer.capacity()) {
+            return;
+        }
+        if (slot > 0) {
+            buffer.position((int) (slot * JournalRecord.SIZE));
+            JournalRecord record = JournalRecord.read(buffer, crc);
+            if (record == null) {
+                return;
+            }
+            if (record.getSequence() == afterSequence + 1) {
+                consumer.accept(record);
+                while ((record = JournalRecord.read(buffer, crc)) != null) {
+                    consumer.accept(record);
+                }
+                return;
+            }
+        }
+        recover(record -> {
+            if (record.getSequence() > afterSequence) {
+                consumer.accept(record);
+            }
+        });
+    }
+
+    /**
+     * Reads the record with {@code sequence} from its slot without moving the write position, so it
+     * is safe alongside appends to the same segment.
+     *
+     * @return the record, or {@code null} if the slot does not hold it
+     */
+    JournalRecord read(long sequence) {
+        long slot = sequence - firstSequence;
+        if (slot < 0 || (slot + 1) * JournalRecord.SIZE > buffer.capacity()) {
+            return null;
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.limit(view.capacity());
+        view.position((int) (slot * JournalRecord.SIZE));
+        JournalRecord record = JournalRecord.read(view, new CRC32());
+        return record != null && record.getSequence() == sequence ? record : null;
+    }
+}
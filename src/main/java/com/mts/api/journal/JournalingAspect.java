@@ -0,0 +1,66 @@
+package com.mts.api.journal;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends a {@link JournalRecord} for every successful {@code AccountManagementService} operation
+ * that changes a ledger balance. Failed operations throw before the advice runs, so they are never
+ * journaled. Placing and releasing a hold leaves the ledger balance alone; capturing it is journaled
+ * as a withdrawal.
+ * <p>
+ * The record is appended after the operation took effect (for the JPA engine, after its transaction
+ * committed) and before the caller gets the result. A crash in between, or an append that fails,
+ * leaves a movement the journal never sees. A failed append is logged but does not fail the operation,
+ * which a client would otherwise retry and so apply twice. The journal is therefore not trusted on its
+ * own: the in-memory engines compare it with the database before recovering from it.
+ */
+@Slf4j
+@Aspect
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "mts.journal", name = "enabled", havingValue = "true")
+public class JournalingAspect {
+    private final TransactionJournal transactionJournal;
+
+    @AfterReturning(pointcut = "execution(* com.mts.api.service.AccountManagementService.createAccount(..))",
+            returning = "account")
+    public void accountCreated(Account account) {
+        append(RecordType.CREATE, account.getAccountId(), 0, 0);
+    }
+
+    @AfterReturning("execution(* com.mts.api.service.AccountManagementService.depositMoney(..)) && args(amount, accountId)")
+    public void moneyDeposited(Money amount, Long accountId) {
+        append(RecordType.DEPOSIT, accountId, 0, amount.units());
+    }
+
+    @AfterReturning("execution(* com.mts.api.service.AccountManagementService.withdrawMoney(..)) && args(amount, accountId)")
+    public void moneyWithdrawn(Money amount, Long accountId) {
+        append(RecordType.WITHDRAW, accountId, 0, amount.units());
+    }
+
+    @AfterReturning("execution(* com.mts.api.service.AccountManagementService.transferMoney(..)) && args(amount, fromAccountId, toAccountId)")
+    public void moneyTransferred(Money amount, Long fromAccountId, Long toAccountId) {
+        append(RecordType.TRANSFER, fromAccountId, toAccountId, amount.units());
+    }
+
+    @AfterReturning("execution(* com.mts.api.service.AccountManagementService.captureMoney(..)) && args(amount, accountId)")
+    public void moneyCaptured(Money amount, Long accountId) {
+        append(RecordType.WITHDRAW, accountId, 0, amount.units());
+    }
+
+    private void append(RecordType type, long accountId, long counterparty, long amount) {
+        try {
+            transactionJournal.append(type, accountId, counterparty, amount);
+        } catch (RuntimeException e) {
+            log.error("{} of {} units on account {} (counterparty {}) took effect but was not journaled",
+                    type, amount, accountId, counterparty, e);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.mts.api.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link TransactionJournal} backed by rolling memory-mapped segment files.
+ * <p>
+ * Appends are serialized by a lock that only covers copying 48 bytes into the mapped buffer.
+ * Making them durable is governed by the {@link FsyncPolicy}: forced inline, forced by a
+ * background flusher that appenders wait on (group commit), or forced periodically.
+ * <p>
+ * Every segment is read once on startup to rebuild an {@link AccountIndex}, which appends keep up to
+ * date; one account's records are then read straight from their slots.
+ */
+@Slf4j
+public class MappedFileJournal implements TransactionJournal, AutoCloseable {
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private final Condition pendingWrites = durableLock.newCondition();
+    private final Thread flusher;
+    private final AccountIndex index = new AccountIndex();
+    private final ConcurrentSkipListMap<Long, JournalSegment> segmentsByFirstSequence = new ConcurrentSkipListMap<>();
+
+    private volatile JournalSegment current;
+    private volatile long written;
+    private volatile long durable;
+    private volatile boolean running = true;
+    private long nextSequence;
+
+    public MappedFileJournal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % JournalRecord.SIZE;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot create journal directory " + directory, e);
+        }
+        recover();
+        if (fsyncPolicy == FsyncPolicy.PER_WRITE) {
+            flusher = null;
+        } else {
+            flusher = new Thread(this::flushLoop, "journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    @Override
+    public long append(RecordType type, long accountId, long counterparty, long amount) {
+        long sequence;
+        writeLock.lock();
+        try {
+            if (!current.hasRoom()) {
+                roll();
+            }
+            sequence = nextSequence++;
+            current.append(sequence, System.currentTimeMillis(), type, accountId, counterparty, amount);
+            index.add(sequence, type, accountId, counterparty);
+            written = sequence;
+            if (fsyncPolicy == FsyncPolicy.PER_WRITE) {
+                current.force();
+                durable = sequence;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (fsyncPolicy == FsyncPolicy.GROUP_COMMIT) {
+            awaitDurable(sequence);
+        }
+        return sequence;
+    }
+
+    @Override
+    public void replay(Consumer<JournalRecord> consumer) {
+        for (Path path : segments()) {
+            JournalSegment.open(path, segmentSize).recover(consumer);
+        }
+    }
+
+    /**
+     * Segments that end at or before {@code afterSequence} are skipped without being read, and the
+     * first remaining one is entered at the slot of the next sequence, so the cost is proportional
+     * to the records replayed rather than to the length of the journal.
+     */
+    @Override
+    public void replay(long afterSequence, Consumer<JournalRecord> consumer) {
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && JournalSegment.firstSequence(segments.get(i + 1)) <= afterSequence + 1) {
+                continue;
+            }
+            JournalSegment.open(segments.get(i), segmentSize).recover(afterSequence, consumer);
+        }
+    }
+
+    @Override
+    public long[] sequencesOf(long accountId) {
+        return index.sequencesOf(accountId);
+    }
+
+    @Override
+    public void read(long[] sequences, Consumer<JournalRecord> consumer) {
+        for (long sequence : sequences) {
+            Map.Entry<Long, JournalSegment> segment = segmentsByFirstSequence.floorEntry(sequence);
+            JournalRecord record = segment == null ? null : segment.getValue().read(sequence);
+            if (record != null) {
+                consumer.accept(record);
+            }
+        }
+    }
+
+    public long lastSequence() {
+        return written;
+    }
+
+    @Override
+    public long durableSequence() {
+        return durable;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (flusher != null) {
+            signalPending();
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writeLock.lock();
+        try {
+            current.force();
+            durable = written;
+        } finally {
+            writeLock.unlock();
+        }
+        durableLock.lock();
+        try {
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void recover() {
+        List<Path> segments = segments();
+        long last = 0;
+        for (Path path : segments) {
+            current = register(JournalSegment.open(path, segmentSize));
+            last = Math.max(last, current.recover(index::add));
+        }
+        if (segments.isEmpty()) {
+            current = register(JournalSegment.open(JournalSegment.fileName(directory, 1), segmentSize));
+        }
+        nextSequence = last + 1;
+        written = last;
+        durable = last;
+        log.info("journal {} opened at sequence {} ({} segments)", directory, nextSequence, Math.max(1, segments.size()));
+    }
+
+    private JournalSegment register(JournalSegment segment) {
+        segmentsByFirstSequence.put(segment.firstSequence(), segment);
+        return segment;
+    }
+
+    private void roll() {
+        current.force();
+        current = register(JournalSegment.open(JournalSegment.fileName(directory, nextSequence), segmentSize));
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot list journal directory " + directory, e);
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        if (durable >= sequence) {
+            return;
+        }
+        durableLock.lock();
+        try {
+            pendingWrites.signal();
+            while (durable < sequence && running) {
+                durableAdvanced.awaitUninterruptibly();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void signalPending() {
+        durableLock.lock();
+        try {
+            pendingWrites.signal();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * Forces everything written so far. Under group commit it runs as soon as an appender is waiting,
+     * so every append that arrived during the previous fsync is covered by the next one.
+     */
+    private void flushLoop() {
+        while (running) {
+            durableLock.lock();
+            try {
+                if (fsyncPolicy == FsyncPolicy.PERIODIC || written == durable) {
+                    pendingWrites.awaitNanos(fsyncIntervalNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                durableLock.unlock();
+            }
+            long target = written;
+            if (target == durable) {
+                continue;
+            }
+            current.force();
+            durableLock.lock();
+            try {
+                durable = target;
+                durableAdvanced.signalAll();
+            } finally {
+                durableLock.unlock();
+            }
+        }
+    }
+}
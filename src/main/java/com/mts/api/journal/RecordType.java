@@ -0,0 +1,14 @@
+package com.mts.api.journal;
+
+public enum RecordType {
+    CREATE,
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER;
+
+    private static final RecordType[] VALUES = values();
+
+    static RecordType of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
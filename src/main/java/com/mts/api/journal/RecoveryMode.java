@@ -0,0 +1,19 @@
+package com.mts.api.journal;
+
+/**
+ * Where an in-memory engine takes its starting balances from when the journal and the database disagree.
+ */
+public enum RecoveryMode {
+    /**
+     * Refuse to start unless the journal and the database agree on every account the journal knows.
+     */
+    VERIFY,
+    /**
+     * Trust the journal, e.g. after a crash left the written-behind database behind it.
+     */
+    JOURNAL,
+    /**
+     * Trust the database, e.g. when the journal was enabled on accounts that already had balances.
+     */
+    DATABASE
+}
@@ -0,0 +1,130 @@
+package com.mts.api.journal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Append-only record of every balance movement. Movements are appended after they took effect, so a
+ * crash can lose the newest ones; see {@link JournalingAspect}.
+ */
+public interface TransactionJournal {
+
+    /**
+     * Journal used when journaling is disabled; records nothing and replays nothing.
+     */
+    TransactionJournal DISABLED = new TransactionJournal() {
+        @Override
+        public long append(RecordType type, long accountId, long counterparty, long amount) {
+            return 0;
+        }
+
+        @Override
+        public void replay(Consumer<JournalRecord> consumer) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * @param amount movement in minor units
+     * @return the sequence assigned to the record
+     */
+    long append(RecordType type, long accountId, long counterparty, long amount);
+
+    /**
+     * Feeds every record, oldest first, to {@code consumer}.
+     */
+    void replay(Consumer<JournalRecord> consumer);
+
+    /**
+     * Feeds every record with a sequence above {@code afterSequence}, oldest first, to {@code consumer}.
+     */
+    default void replay(long afterSequence, Consumer<JournalRecord> consumer) {
+        replay(record -> {
+            if (record.getSequence() > afterSequence) {
+                consumer.accept(record);
+            }
+        });
+    }
+
+    /**
+     * Whether records are kept at all; {@code false} only for {@link #DISABLED}.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Sequences of the records that {@link JournalRecord#touches(long) touch} {@code accountId}, in
+     * ascending order. This default scans the whole journal; indexed journals override it.
+     */
+    default long[] sequencesOf(long accountId) {
+        long[][] found = {new long[16]};
+        int[] size = {0};
+        replay(record -> {
+            if (record.touches(accountId)) {
+                if (size[0] == found[0].length) {
+                    found[0] = Arrays.copyOf(found[0], size[0] * 2);
+                }
+                found[0][size[0]++] = record.getSequence();
+            }
+        });
+        return Arrays.copyOf(found[0], size[0]);
+    }
+
+    /**
+     * Feeds the records with the given ascending {@code sequences}, in that order, to {@code consumer}.
+     * This default scans the whole journal; indexed journals read each record directly.
+     */
+    default void read(long[] sequences, Consumer<JournalRecord> consumer) {
+        if (sequences.length == 0) {
+            return;
+        }
+        replay(sequences[0] - 1, record -> {
+            if (Arrays.binarySearch(sequences, record.getSequence()) >= 0) {
+                consumer.accept(record);
+            }
+        });
+    }
+
+    /**
+     * Sequence of the last record that is known to survive a crash, or 0 if there is none.
+     */
+    default long durableSequence() {
+        return 0;
+    }
+
+    /**
+     * Rebuilds account balances in minor units by replaying the whole journal.
+     */
+    default Map<Long, Long> replayBalances() {
+        Map<Long, Long> balances = new HashMap<>();
+        replay(record -> apply(balances, record));
+        return balances;
+    }
+
+    static void apply(Map<Long, Long> balances, JournalRecord record) {
+        switch (record.getType()) {
+            case CREATE:
+                balances.putIfAbsent(record.getAccountId(), 0L);
+                break;
+            case DEPOSIT:
+                balances.merge(record.getAccountId(), record.getAmount(), Long::sum);
+                break;
+            case WITHDRAW:
+                balances.merge(record.getAccountId(), -record.getAmount(), Long::sum);
+                break;
+            case TRANSFER:
+                balances.merge(record.getAccountId(), -record.getAmount(), Long::sum);
+                balances.merge(record.getCounterparty(), record.getAmount(), Long::sum);
+                break;
+            default:
+                throw new IllegalStateException("unknown record type " + record.getType());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.mts.api.ledger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Lock-free table of {@link LedgerAccount}s keyed by account id.
+ */
+public class Ledger {
+    private final ConcurrentHashMap<Long, LedgerAccount> accounts = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached account, loading it once with {@code loader} on a miss.
+     * A {@code null} from the loader means the account does not exist and nothing is cached.
+     */
+    public LedgerAccount get(Long accountId, Function<Long, LedgerAccount> loader) {
+        LedgerAccount account = accounts.get(accountId);
+        return account != null ? account : accounts.computeIfAbsent(accountId, loader);
+    }
+
+    public void put(LedgerAccount account) {
+        accounts.put(account.getAccountId(), account);
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+}
@@ -0,0 +1,124 @@
+package com.mts.api.ledger;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.domain.User;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot, in-memory view of an {@link Account}. The available balance is kept in minor units and only
+ * ever changed with compare-and-set, so concurrent debits can never take it below zero. Held funds
+ * are kept apart from it; the ledger balance is the sum of the two.
+ */
+public class LedgerAccount {
+    public static final long INSUFFICIENT = -1L;
+
+    @Getter
+    private final Long accountId;
+    @Getter
+    private final User user;
+    private final AtomicLong available;
+    private final AtomicLong held;
+
+    public LedgerAccount(Long accountId, User user, long balance) {
+        this(accountId, user, balance, 0);
+    }
+
+    private LedgerAccount(Long accountId, User user, long available, long held) {
+        this.accountId = accountId;
+        this.user = user;
+        this.available = new AtomicLong(available);
+        this.held = new AtomicLong(held);
+    }
+
+    public static LedgerAccount of(Account account) {
+        return new LedgerAccount(account.getAccountId(), account.getUserId(), account.getAvailable().units(),
+                account.getHeld().units());
+    }
+
+    /**
+     * @return the ledger balance; while a hold is being placed or released on another thread it may
+     * briefly not include that hold's amount
+     */
+    public long balance() {
+        return available.get() + held.get();
+    }
+
+    public long available() {
+        return available.get();
+    }
+
+    public long held() {
+        return held.get();
+    }
+
+    /**
+     * Atomically subtracts {@code units} from the available balance if it covers it.
+     *
+     * @return the new available balance, or {@link #INSUFFICIENT} if nothing was debited
+     */
+    public long debit(long units) {
+        long current;
+        long next;
+        do {
+            current = available.get();
+            next = current - units;
+            if (next < 0) {
+                return INSUFFICIENT;
+            }
+        } while (!available.compareAndSet(current, next));
+        return next;
+    }
+
+    public long credit(long units) {
+        return available.addAndGet(units);
+    }
+
+    /**
+     * Moves {@code units} from the available balance to held funds if the available balance covers it.
+     *
+     * @return the new available balance, or {@link #INSUFFICIENT} if nothing was held
+     */
+    public long hold(long units) {
+        long next = debit(units);
+        if (next != INSUFFICIENT) {
+            held.addAndGet(units);
+        }
+        return next;
+    }
+
+    /**
+     * Returns {@code units} of held funds to the available balance.
+     *
+     * @return the new available balance
+     */
+    public long release(long units) {
+        held.addAndGet(-units);
+        return credit(units);
+    }
+
+    /**
+     * Settles {@code units} of held funds: they leave the account.
+     *
+     * @return the available balance, which is unchanged
+     */
+    public long capture(long units) {
+        held.addAndGet(-units);
+        return available.get();
+    }
+
+    /**
+     * @param available the available balance to report, as returned by the operation that produced it
+     */
+    public Account toAccount(long available) {
+        long held = this.held.get();
+        return Account.builder()
+                .accountId(accountId)
+                .userId(user)
+                .balance(Money.ofUnits(available + held))
+                .held(Money.ofUnits(held))
+                .build();
+    }
+}
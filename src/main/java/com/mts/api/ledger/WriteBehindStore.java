@@ -0,0 +1,109 @@
+package com.mts.api.ledger;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronously persists ledger balances and held funds to {@link AccountRepository}.
+ * <p>
+ * Mutations only mark an account dirty; a single background thread periodically copies the latest
+ * in-memory balance of every dirty account to the database, so many updates to a hot account
+ * collapse into a single write.
+ */
+@Slf4j
+public class WriteBehindStore {
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Map<Long, LedgerAccount> dirty = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ledger-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WriteBehindStore(AccountRepository accountRepository, TransactionTemplate transactionTemplate,
+                            Duration flushInterval, int batchSize) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        long interval = flushInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void markDirty(LedgerAccount account) {
+        dirty.put(account.getAccountId(), account);
+    }
+
+    public int pending() {
+        return dirty.size();
+    }
+
+    /**
+     * Writes every dirty account to the database. Accounts that fail to persist are marked dirty again.
+     */
+    public void flush() {
+        Iterator<LedgerAccount> it = dirty.values().iterator();
+        List<LedgerAccount> batch = new ArrayList<>(Math.min(batchSize, dirty.size()));
+        while (it.hasNext()) {
+            batch.add(it.next());
+            it.remove();
+            if (batch.size() == batchSize || !it.hasNext()) {
+                persist(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("write-behind flush failed", e);
+        }
+    }
+
+    private void persist(List<LedgerAccount> batch) {
+        Map<Long, LedgerAccount> byId = new HashMap<>(batch.size() * 2);
+        batch.forEach(account -> byId.put(account.getAccountId(), account));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Iterable<Account> accounts = accountRepository.findAllById(byId.keySet());
+                accounts.forEach(account -> {
+                    LedgerAccount ledgerAccount = byId.get(account.getAccountId());
+                    long held = ledgerAccount.held();
+                    account.setBalance(Money.ofUnits(ledgerAccount.available() + held));
+                    account.setHeld(Money.ofUnits(held));
+                });
+                accountRepository.saveAll(accounts);
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(account -> dirty.putIfAbsent(account.getAccountId(), account));
+            throw e;
+        }
+    }
+}
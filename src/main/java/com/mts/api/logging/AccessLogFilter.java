@@ -0,0 +1,96 @@
+package com.mts.api.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Writes one line per request to the {@code mts.access} logger, in {@code key=value} form:
+ * <pre>method=PUT path=/account/withdraw status=200 duration_us=1840</pre>
+ * The path is logged without its query string, so parameters such as e-mail addresses stay out of the
+ * log. Requests that go asynchronous are logged when they complete, with the time until then.
+ * <p>
+ * The line is built once, on the request thread, and logged without arguments, so the appender has
+ * nothing left to format beyond the timestamp.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "mts.logging.access.enabled", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+    static final String LOGGER = "mts.access";
+
+    private static final Logger ACCESS = LoggerFactory.getLogger(LOGGER);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!ACCESS.isInfoEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Completion(request, response, start));
+            } else {
+                log(request, completed ? response.getStatus() : HttpStatus.INTERNAL_SERVER_ERROR.value(), start);
+            }
+        }
+    }
+
+    private static void log(HttpServletRequest request, int status, long startNanos) {
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        ACCESS.info(new StringBuilder(96)
+                .append("method=").append(request.getMethod())
+                .append(" path=").append(request.getRequestURI())
+                .append(" status=").append(status)
+                .append(" duration_us=").append(micros)
+                .toString());
+    }
+
+    private static final class Completion implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long startNanos;
+
+        private Completion(HttpServletRequest request, HttpServletResponse response, long startNanos) {
+            this.request = request;
+            this.response = response;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            log(request, response.getStatus(), startNanos);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
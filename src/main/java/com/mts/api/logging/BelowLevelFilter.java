@@ -0,0 +1,23 @@
+package com.mts.api.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback filter that lets only events below {@code level} through; the counterpart of logback's
+ * {@code ThresholdFilter}. It splits one stream of events between a lossy and a lossless appender.
+ */
+public class BelowLevelFilter extends Filter<ILoggingEvent> {
+    private Level level = Level.WARN;
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.WARN);
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        return event.getLevel().isGreaterOrEqual(level) ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mts.api.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that lets one event in every {@code rate} through. Attached to an async appender it
+ * drops the rest on the logging thread, before they are queued, so a high-volume logger costs one
+ * counter increment per event instead of a write.
+ */
+public class SamplingFilter extends Filter<ILoggingEvent> {
+    private final AtomicLong events = new AtomicLong();
+    private int rate = 1;
+
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        return events.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
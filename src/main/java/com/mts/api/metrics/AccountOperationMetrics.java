@@ -0,0 +1,60 @@
+package com.mts.api.metrics;
+
+import com.mts.api.exceptions.ApiError;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@code AccountManagementService} call, tagged with the operation and its outcome:
+ * {@code success}, the {@link ApiError} reason, or {@code error} for anything unexpected.
+ */
+@Aspect
+@Component
+@AllArgsConstructor
+public class AccountOperationMetrics {
+    static final String OPERATION_METRIC = "mts.account.operation";
+
+    private final MeterRegistry meterRegistry;
+    /**
+     * Timers by operation and outcome, so the hot path does not resolve them in the registry.
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.mts.api.service.AccountManagementService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (ApiError e) {
+            outcome = e.reason().name();
+            throw e;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            timer(joinPoint.getSignature().getName(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String operation, String outcome) {
+        ConcurrentHashMap<String, Timer> byOutcome = timers.get(operation);
+        if (byOutcome == null) {
+            byOutcome = timers.computeIfAbsent(operation, o -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byOutcome.get(outcome);
+        if (timer == null) {
+            timer = byOutcome.computeIfAbsent(outcome,
+                    o -> meterRegistry.timer(OPERATION_METRIC, "operation", operation, "outcome", o));
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mts.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DataSource} that times every statement execution, so database time can be told apart from
+ * Hibernate and lock time. Timers are tagged {@code query}, {@code update} or {@code batch}.
+ * <p>
+ * The registry is resolved on first use, because the data source is created before metrics are.
+ */
+public class TimedDataSource extends DelegatingDataSource {
+    static final String STATEMENT_METRIC = "mts.db.statement";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private volatile Timers timers;
+
+    public TimedDataSource(DataSource target, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return proxy(Connection.class, connection, (method, result) ->
+                result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())
+                        ? timedStatement(method.getReturnType(), (Statement) result)
+                        : result);
+    }
+
+    private Object timedStatement(Class<?> type, Statement statement) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Timer timer = timer(method.getName());
+            if (timer == null) {
+                return invoke(statement, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private Timer timer(String method) {
+        if (!method.startsWith("execute")) {
+            return null;
+        }
+        Timers current = timers;
+        if (current == null) {
+            current = timers = new Timers(meterRegistry.getObject());
+        }
+        if (method.endsWith("Batch")) {
+            return current.batch;
+        }
+        return "executeQuery".equals(method) ? current.query : current.update;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+        return type.cast(Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> mapper.map(method, invoke(target, method, args))));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface ResultMapper {
+        Object map(Method method, Object result);
+    }
+
+    private static final class Timers {
+        private final Timer query;
+        private final Timer update;
+        private final Timer batch;
+
+        private Timers(MeterRegistry meterRegistry) {
+            query = meterRegistry.timer(STATEMENT_METRIC, "type", "query");
+            update = meterRegistry.timer(STATEMENT_METRIC, "type", "update");
+            batch = meterRegistry.timer(STATEMENT_METRIC, "type", "batch");
+        }
+    }
+}
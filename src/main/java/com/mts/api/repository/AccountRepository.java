@@ -1,7 +1,74 @@
 package com.mts.api.repository;
 
 import com.mts.api.domain.Account;
-import org.springframework.data.repository.CrudRepository;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface AccountRepository extends CrudRepository<Account, Long> {
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountRepository extends JpaRepository<Account, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountId = :accountId")
+    Optional<Account> findByIdForUpdate(@Param("accountId") Long accountId);
+
+    /**
+     * Reads only the balance columns, without joining the account's user.
+     */
+    @Query("select new com.mts.api.dto.AccountBalance(a.accountId, a.balance, a.held, a.version) from Account a where a.accountId = :accountId")
+    Optional<AccountBalance> findBalanceById(@Param("accountId") Long accountId);
+
+    /**
+     * Reads the balance columns of every account, without joining their users.
+     */
+    @Query("select new com.mts.api.dto.AccountBalance(a.accountId, a.balance, a.held, a.version) from Account a")
+    List<AccountBalance> findAllBalances();
+
+    /**
+     * Reads the id of the account's user from the foreign key column, without loading the user.
+     */
+    @Query("select a.userId.userId from Account a where a.accountId = :accountId")
+    Optional<Long> findUserIdById(@Param("accountId") Long accountId);
+
+    /**
+     * Keyset page in id order: the accounts after {@code afterId}, read from the primary key index.
+     */
+    @Query("select a from Account a left join fetch a.userId where a.accountId > :afterId order by a.accountId")
+    List<Account> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page in {@code (balance, accountId)} order, resuming after the last row of the previous
+     * page and stopping at {@code maxBalance}; served by the {@code idx_account_balance} index.
+     */
+    @Query("select a from Account a left join fetch a.userId where a.balance <= :maxBalance"
+            + " and (a.balance > :afterBalance or (a.balance = :afterBalance and a.accountId > :afterId))"
+            + " order by a.balance, a.accountId")
+    List<Account> findPageByBalance(@Param("afterBalance") Money afterBalance, @Param("afterId") Long afterId,
+                                    @Param("maxBalance") Money maxBalance, Pageable pageable);
+
+    @Query("select a from Account a join fetch a.userId u where u.email = :email order by a.accountId")
+    List<Account> findByEmail(@Param("email") String email);
+
+    @Query("select a from Account a join fetch a.userId u where u.username = :username order by a.accountId")
+    List<Account> findByUsername(@Param("username") String username);
+
+    /**
+     * Returns every held amount to the available balance. Holds live only in memory, so amounts
+     * still held when the application starts belong to holds that no longer exist.
+     *
+     * @return the number of accounts changed
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update account set held = 0, version = version + 1 where held <> 0", nativeQuery = true)
+    int releaseAllHolds();
 }
@@ -0,0 +1,18 @@
+package com.mts.api.repository;
+
+import com.mts.api.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends CrudRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
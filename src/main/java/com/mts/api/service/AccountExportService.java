@@ -0,0 +1,230 @@
+package com.mts.api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Money;
+import com.mts.api.exceptions.impl.StatementsUnavailable;
+import com.mts.api.journal.JournalRecord;
+import com.mts.api.journal.TransactionJournal;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static com.mts.api.domain.Money.SCALE;
+
+/**
+ * Streams account statements and the full account table row by row, so memory stays flat however
+ * large the result is.
+ * <p>
+ * The export reads through a forward-only JDBC cursor with {@code mts.account.export.fetch-size}
+ * rows per round trip and writes each row as soon as it is read; no entities are built and no
+ * persistence context grows. Statements read only the account's own journal records, through the
+ * journal's per-account index, and carry the running balance after every movement; without a journal
+ * they are refused. The first row is flushed immediately so clients see bytes before the rest of the
+ * result has been read.
+ */
+@Service
+@AllArgsConstructor
+public class AccountExportService {
+    private static final String EXPORT_ACCOUNTS =
+            "select a.account_id, a.balance, a.version, u.username, u.email "
+                    + "from account a left join user u on u.user_id = a.user_id_user_id order by a.account_id";
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final String[] ACCOUNT_COLUMNS = {"accountId", "balance", "version", "username", "email"};
+    private static final String[] STATEMENT_COLUMNS =
+            {"sequence", "timestamp", "type", "amount", "counterparty", "balance"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountManagementService accountManagementService;
+    private final TransactionJournal transactionJournal;
+    private final ObjectMapper objectMapper;
+    private final AccountProperties accountProperties;
+
+    /**
+     * Checks that the journal is enabled and the account exists before anything is written, so both
+     * still get a regular error response.
+     * <p>
+     * The running balance is anchored to the account's current balance: the opening balance is the
+     * current one minus the journaled movements, so accounts that had money before journaling was
+     * enabled start from it, and the last row ends at the balance. The account's records are listed
+     * before its balance is read; a movement landing in between shifts the opening balance by its
+     * amount.
+     */
+    public StreamingResponseBody statement(Long accountId, ExportFormat format) {
+        if (!transactionJournal.isEnabled()) {
+            throw new StatementsUnavailable();
+        }
+        long[] sequences = transactionJournal.sequencesOf(accountId);
+        Money balance = accountManagementService.getBalance(accountId).getBalance();
+        return out -> writeStatement(accountId, sequences, balance, format, out);
+    }
+
+    public StreamingResponseBody exportAccounts(ExportFormat format) {
+        return out -> writeAccounts(format, out);
+    }
+
+    void writeStatement(Long accountId, long[] sequences, Money current, ExportFormat format, OutputStream out)
+            throws IOException {
+        long[] balance = {current.units()};
+        transactionJournal.read(sequences, record -> balance[0] -= movement(record, accountId));
+        try (RowWriter writer = new RowWriter(format, out, STATEMENT_COLUMNS)) {
+            transactionJournal.read(sequences, record -> {
+                long amount = movement(record, accountId);
+                balance[0] += amount;
+                long counterparty = record.getAccountId() == accountId ? record.getCounterparty() : record.getAccountId();
+                writer.row(record.getSequence(), record.getTimestamp(), record.getType().name(), decimal(amount),
+                        counterparty == 0 ? null : counterparty, decimal(balance[0]));
+            });
+        }
+    }
+
+    void writeAccounts(ExportFormat format, OutputStream out) throws IOException {
+        try (RowWriter writer = new RowWriter(format, out, ACCOUNT_COLUMNS)) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_ACCOUNTS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(accountProperties.getExport().getFetchSize());
+                return statement;
+            }, (ResultSet resultSet) -> writer.row(resultSet.getLong(1), resultSet.getBigDecimal(2),
+                    resultSet.getLong(3), resultSet.getString(4), resultSet.getString(5)));
+        }
+    }
+
+    /**
+     * @return the signed change {@code record} makes to {@code accountId}, in minor units
+     */
+    private static long movement(JournalRecord record, long accountId) {
+        switch (record.getType()) {
+            case DEPOSIT:
+                return record.getAccountId() == accountId ? record.getAmount() : 0;
+            case WITHDRAW:
+                return record.getAccountId() == accountId ? -record.getAmount() : 0;
+            case TRANSFER:
+                if (record.getAccountId() == accountId) {
+                    return -record.getAmount();
+                }
+                return record.getCounterparty() == accountId ? record.getAmount() : 0;
+            default:
+                return 0;
+        }
+    }
+
+    private static BigDecimal decimal(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * Writes rows as NDJSON objects or CSV lines. The first row is flushed through to the client
+     * right away; later rows are left to the output buffers.
+     */
+    private final class RowWriter implements AutoCloseable {
+        private final String[] columns;
+        private final OutputStream out;
+        private final JsonGenerator json;
+        private final Writer csv;
+        private boolean flushed;
+
+        RowWriter(ExportFormat format, OutputStream out, String[] columns) throws IOException {
+            this.columns = columns;
+            this.out = out;
+            if (format == ExportFormat.NDJSON) {
+                json = objectMapper.getFactory().createGenerator(out).setRootValueSeparator(null);
+                csv = null;
+            } else {
+                json = null;
+                csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+                csv.write(String.join(",", columns));
+                csv.write('\n');
+            }
+        }
+
+        void row(Object... values) {
+            try {
+                if (json != null) {
+                    writeJson(values);
+                } else {
+                    writeCsv(values);
+                }
+                if (!flushed) {
+                    flush();
+                    flushed = true;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeJson(Object[] values) throws IOException {
+            json.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                json.writeFieldName(columns[i]);
+                if (value == null) {
+                    json.writeNull();
+                } else if (value instanceof Long) {
+                    json.writeNumber((Long) value);
+                } else if (value instanceof BigDecimal) {
+                    json.writeNumber((BigDecimal) value);
+                } else {
+                    json.writeString(value.toString());
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private void writeCsv(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                if (values[i] != null) {
+                    csv.write(csvField(values[i].toString()));
+                }
+            }
+            csv.write('\n');
+        }
+
+        private void flush() throws IOException {
+            if (json != null) {
+                json.flush();
+            } else {
+                csv.flush();
+            }
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (json != null) {
+                json.close();
+            } else {
+                csv.close();
+            }
+        }
+    }
+
+    private static String csvField(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
@@ -1,15 +1,33 @@
 package com.mts.api.service;
 
 import com.mts.api.domain.Account;
-
-import java.math.BigDecimal;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
 
 public interface AccountManagementService {
     Account createAccount(String email, String username);
 
-    Account withdrawMoney(BigDecimal amount, Long accountId);
+    AccountBalance getBalance(Long accountId);
+
+    Account withdrawMoney(Money amount, Long accountId);
+
+    Account depositMoney(Money amount, Long accountId);
+
+    void transferMoney(Money amount, Long fromAccount, Long toAccount);
+
+    /**
+     * Moves {@code amount} from the available balance to held funds; the ledger balance is unchanged.
+     */
+    Account holdMoney(Money amount, Long accountId);
 
-    Account depositMoney(BigDecimal amount, Long accountId);
+    /**
+     * Returns {@code amount} of held funds to the available balance. Callers only release what they
+     * held, so held funds never go negative.
+     */
+    Account releaseMoney(Money amount, Long accountId);
 
-    void transferMoney(BigDecimal amount, Long fromAccount, Long toAccount);
+    /**
+     * Settles {@code amount} of held funds: it leaves the ledger balance, the available balance is unchanged.
+     */
+    Account captureMoney(Money amount, Long accountId);
 }
@@ -0,0 +1,103 @@
+package com.mts.api.service;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.domain.User;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.dto.AccountDetails;
+import com.mts.api.dto.AccountPage;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only account lookups for operational tooling.
+ * <p>
+ * Listings use keyset pagination: each page continues strictly after the last row of the previous
+ * one, so every page is an index range scan of {@code limit} rows no matter how deep it is, and no
+ * count query is ever run.
+ */
+@Service
+@AllArgsConstructor
+public class AccountQueryService {
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final AccountRepository accountRepository;
+    private final UserRepository userRepository;
+    private final AccountManagementService accountManagementService;
+
+    /**
+     * The account with its user. The balance comes from the account engine, so it is as current as
+     * {@link AccountManagementService#getBalance}; the user is looked up by id, which the second-level
+     * cache serves when one is configured.
+     */
+    public AccountDetails details(Long accountId) {
+        AccountBalance balance = accountManagementService.getBalance(accountId);
+        User user = accountRepository.findUserIdById(accountId)
+                .flatMap(userRepository::findById)
+                .orElseThrow(() -> new AccountDoesNotExist(accountId));
+        return AccountDetails.of(balance, user);
+    }
+
+    public AccountPage pageById(Long afterId, int limit) {
+        int size = pageSize(limit);
+        List<Account> accounts = accountRepository.findPageAfterId(afterId == null ? 0L : afterId, PageRequest.of(0, size));
+        return page(accounts, size, false);
+    }
+
+    /**
+     * Accounts with a balance in {@code [minBalance, maxBalance]}, in balance order. The cursor of the
+     * previous page is {@code (afterBalance, afterId)}; without one, or with one below {@code minBalance},
+     * the page starts at {@code minBalance}.
+     */
+    public AccountPage pageByBalance(Money minBalance, Money maxBalance, Money afterBalance, Long afterId, int limit) {
+        int size = pageSize(limit);
+        Money from;
+        long fromId;
+        if (afterBalance != null && (minBalance == null || afterBalance.compareTo(minBalance) >= 0)) {
+            from = afterBalance;
+            fromId = afterId == null ? 0L : afterId;
+        } else {
+            // a cursor below the range says nothing about ids at minBalance, so start before all of them;
+            // without a minimum that includes overdrawn accounts
+            from = minBalance != null ? minBalance : Money.ofUnits(Long.MIN_VALUE);
+            fromId = 0L;
+        }
+        List<Account> accounts = accountRepository.findPageByBalance(from, fromId,
+                maxBalance != null ? maxBalance : Money.ofUnits(Long.MAX_VALUE), PageRequest.of(0, size));
+        return page(accounts, size, true);
+    }
+
+    public List<AccountDetails> findByEmail(String email) {
+        return details(accountRepository.findByEmail(email));
+    }
+
+    public List<AccountDetails> findByUsername(String username) {
+        return details(accountRepository.findByUsername(username));
+    }
+
+    private static AccountPage page(List<Account> accounts, int size, boolean byBalance) {
+        if (accounts.size() < size) {
+            return new AccountPage(details(accounts), null, null);
+        }
+        Account last = accounts.get(accounts.size() - 1);
+        return new AccountPage(details(accounts), last.getAccountId(), byBalance ? last.getBalance() : null);
+    }
+
+    /**
+     * Maps entities to their response view so neither JPA state nor lazy associations leak into JSON.
+     */
+    private static List<AccountDetails> details(List<Account> accounts) {
+        return accounts.stream().map(AccountDetails::of).collect(Collectors.toList());
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
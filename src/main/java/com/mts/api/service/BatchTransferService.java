@@ -0,0 +1,16 @@
+package com.mts.api.service;
+
+import com.mts.api.dto.BatchTransferResponse;
+import com.mts.api.dto.TransferRequest;
+
+import java.util.Iterator;
+
+public interface BatchTransferService {
+    /**
+     * Applies transfers in order, consuming {@code transfers} lazily so callers can stream them.
+     * A rejected transfer does not affect the others. If {@code transfers} throws, the transfers applied
+     * so far stay applied, and the response reports the unreadable one and any read but not yet applied
+     * as not run.
+     */
+    BatchTransferResponse transfer(Iterator<TransferRequest> transfers);
+}
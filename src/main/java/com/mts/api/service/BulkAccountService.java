@@ -0,0 +1,223 @@
+package com.mts.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.domain.User;
+import com.mts.api.dto.BulkCreateFailure;
+import com.mts.api.dto.BulkCreateResponse;
+import com.mts.api.dto.NewAccount;
+import com.mts.api.exceptions.impl.MalformedUpload;
+import com.mts.api.repository.AccountRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates accounts from an NDJSON or CSV upload.
+ * <p>
+ * The body is parsed incrementally and accounts are inserted {@code mts.account.bulk.chunk-size} at
+ * a time, one transaction per chunk. Ids come from pooled sequences, so a chunk costs a handful of
+ * sequence calls instead of two per account, and Hibernate sends the user and account inserts as
+ * ordered JDBC batches. Invalid rows are rejected individually; a chunk that fails in the database
+ * is reported as failed without affecting the others. A row that cannot be parsed is reported and
+ * ends the upload; the rows before it are still created. A CSV body without an {@code email} and
+ * {@code username} header is refused with {@link MalformedUpload}.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class BulkAccountService {
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final AccountProperties accountProperties;
+
+    public BulkCreateResponse createAccounts(ExportFormat format, InputStream body) throws IOException {
+        long started = System.nanoTime();
+        int chunkSize = accountProperties.getBulk().getChunkSize();
+        List<BulkCreateFailure> failures = new ArrayList<>();
+        List<Account> chunk = new ArrayList<>(chunkSize);
+        int chunkStart = 0;
+        int created = 0;
+        int rows = 0;
+        Iterator<NewAccount> accounts = format == ExportFormat.CSV
+                ? new CsvReader(body)
+                : objectMapper.readerFor(NewAccount.class).readValues(body);
+        for (; ; ) {
+            NewAccount row;
+            try {
+                if (!accounts.hasNext()) {
+                    break;
+                }
+                row = accounts.next();
+            } catch (RuntimeException e) {
+                log.debug("bulk create input unreadable at row {}", rows, e);
+                failures.add(new BulkCreateFailure(rows, "Malformed row; the upload was not read any further"));
+                rows++;
+                break;
+            }
+            String reason = validate(row, chunk);
+            if (reason != null) {
+                failures.add(new BulkCreateFailure(rows, reason));
+            }
+            rows++;
+            if (chunk.size() == chunkSize) {
+                created += insert(chunk, chunkStart, rows, failures);
+                chunkStart = rows;
+            }
+        }
+        created += insert(chunk, chunkStart, rows, failures);
+
+        long elapsed = System.nanoTime() - started;
+        return new BulkCreateResponse(created, rows - created, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                rows * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed), failures);
+    }
+
+    /**
+     * Adds the account for {@code row} to {@code chunk} if the row is valid.
+     *
+     * @return why the row was rejected, or {@code null}
+     */
+    private String validate(NewAccount row, List<Account> chunk) {
+        if (row.getEmail() == null || row.getEmail().isEmpty() || row.getUsername() == null || row.getUsername().isEmpty()) {
+            return "email and username are required";
+        }
+        User user = User.builder()
+                .email(row.getEmail())
+                .username(row.getUsername())
+                .build();
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<User> violation = violations.iterator().next();
+            return violation.getPropertyPath() + " " + violation.getMessage();
+        }
+        chunk.add(Account.builder()
+                .userId(user)
+                .balance(Money.ZERO)
+                .build());
+        return null;
+    }
+
+    /**
+     * Inserts the chunk in one transaction and clears it.
+     *
+     * @return the number of accounts created
+     */
+    private int insert(List<Account> chunk, int chunkStart, int chunkEnd, List<BulkCreateFailure> failures) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        int size = chunk.size();
+        try {
+            transactionTemplate.execute(status -> accountRepository.saveAll(chunk));
+            return size;
+        } catch (DataAccessException e) {
+            log.error("bulk create chunk of rows {} to {} failed", chunkStart, chunkEnd - 1, e);
+            failures.add(new BulkCreateFailure(chunkStart, "Transaction failed for rows " + chunkStart + " to " + (chunkEnd - 1)));
+            return 0;
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Reads {@code email} and {@code username} columns, in any order, from a CSV body with a header
+     * line. Fields may be double-quoted, but not span lines.
+     */
+    private static final class CsvReader implements Iterator<NewAccount> {
+        private final BufferedReader reader;
+        private final int emailColumn;
+        private final int usernameColumn;
+        private String line;
+
+        CsvReader(InputStream body) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            List<String> columns = header == null ? new ArrayList<>() : Arrays.asList(split(header));
+            emailColumn = columns.indexOf("email");
+            usernameColumn = columns.indexOf("username");
+            if (emailColumn < 0 || usernameColumn < 0) {
+                throw new MalformedUpload("CSV header must name the email and username columns");
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return line != null;
+        }
+
+        @Override
+        public NewAccount next() {
+            if (line == null) {
+                throw new NoSuchElementException();
+            }
+            String[] fields = split(line);
+            advance();
+            return new NewAccount(field(fields, emailColumn), field(fields, usernameColumn));
+        }
+
+        private void advance() {
+            try {
+                do {
+                    line = reader.readLine();
+                } while (line != null && line.isEmpty());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String field(String[] fields, int column) {
+            return column < fields.length ? fields[column] : null;
+        }
+
+        private static String[] split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString().trim());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString().trim());
+            return fields.toArray(new String[0]);
+        }
+    }
+}
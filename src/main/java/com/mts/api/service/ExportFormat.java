@@ -0,0 +1,29 @@
+package com.mts.api.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented encodings of the streaming export and bulk upload endpoints; both can be written
+ * and consumed one row at a time.
+ */
+public enum ExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return the format of an uploaded body with the given content type; anything but CSV is read as NDJSON
+     */
+    public static ExportFormat of(MediaType contentType) {
+        return CSV.mediaType.isCompatibleWith(contentType) ? CSV : NDJSON;
+    }
+}
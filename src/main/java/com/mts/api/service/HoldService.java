@@ -0,0 +1,181 @@
+package com.mts.api.service;
+
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.Hold;
+import com.mts.api.exceptions.impl.HoldNotFound;
+import com.mts.api.exceptions.impl.InvalidHoldRequest;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.timer.TimerWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Scheduler;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Two-phase payments: a hold reserves funds on an account, and is later captured, in full or in
+ * part, or released.
+ * <p>
+ * Open holds are indexed in memory by id and expire through the {@link TimerWheel}, so neither
+ * placing a hold nor expiring one costs a query beyond the balance change itself. Whichever of
+ * capture, release and expiry removes a hold from the index first settles it; the others find it
+ * gone. If settling fails the hold is put back, so it can be settled again and still expires.
+ * Expiry only claims the hold on the timer thread; the release runs on {@code accountScheduler} and
+ * is retried after {@code mts.account.hold.retry-delay} until it succeeds. The index does not
+ * survive a restart, so held amounts left in the database by a previous run are released on startup.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class HoldService {
+    static final String OPEN_HOLDS_METRIC = "mts.account.holds.open";
+
+    private final AccountManagementService accountManagementService;
+    private final AccountRepository accountRepository;
+    private final TimerWheel holdTimer;
+    private final Scheduler accountScheduler;
+    private final AccountProperties accountProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void releaseOrphanedHolds() {
+        int released = accountRepository.releaseAllHolds();
+        if (released > 0) {
+            log.info("released held funds of {} accounts left by a previous run", released);
+        }
+        meterRegistry.gaugeMapSize(OPEN_HOLDS_METRIC, Tags.empty(), holds);
+    }
+
+    /**
+     * Holds {@code amount} on the account for {@code ttl}, or the configured default if it is {@code null}.
+     */
+    public Hold place(Long accountId, Money amount, Duration ttl) {
+        Duration lifetime = ttl == null ? accountProperties.getHold().getDefaultTtl() : ttl;
+        if (lifetime.isNegative() || lifetime.isZero()) {
+            throw new InvalidHoldRequest("Hold lifetime must be positive: " + lifetime);
+        }
+        if (!amount.isPositive()) {
+            throw new InvalidHoldRequest("Hold amount must be positive: " + amount);
+        }
+        accountManagementService.holdMoney(amount, accountId);
+        Hold hold = new Hold(UUID.randomUUID().toString(), accountId, amount,
+                System.currentTimeMillis() + lifetime.toMillis());
+        holds.put(hold.getHoldId(), hold);
+        holdTimer.schedule(lifetime, () -> expire(hold));
+        return hold;
+    }
+
+    public Hold get(String holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null) {
+            throw new HoldNotFound(holdId);
+        }
+        return hold;
+    }
+
+    /**
+     * Settles {@code amount} of the hold, or all of it if {@code amount} is {@code null}; the rest is released.
+     */
+    public Account capture(String holdId, Money amount) {
+        Hold hold = get(holdId);
+        Money captured = amount == null ? hold.getAmount() : amount;
+        if (!captured.isPositive()) {
+            throw new InvalidHoldRequest("Capture amount must be positive: " + captured);
+        }
+        if (hold.getAmount().isLessThan(captured)) {
+            throw new InvalidHoldRequest("Capture of " + captured + " exceeds the held " + hold.getAmount());
+        }
+        remove(hold);
+        Account account;
+        try {
+            account = accountManagementService.captureMoney(captured, hold.getAccountId());
+        } catch (RuntimeException e) {
+            restore(hold);
+            throw e;
+        }
+        Money rest = hold.getAmount().minus(captured);
+        if (rest.compareTo(Money.ZERO) > 0) {
+            try {
+                account = accountManagementService.releaseMoney(rest, hold.getAccountId());
+            } catch (RuntimeException e) {
+                log.warn("releasing the uncaptured {} of hold {} failed; it stays held until the hold expires",
+                        rest, hold.getHoldId(), e);
+                restore(new Hold(hold.getHoldId(), hold.getAccountId(), rest, hold.getExpiresAt()));
+            }
+        }
+        return account;
+    }
+
+    public Account release(String holdId) {
+        Hold hold = get(holdId);
+        remove(hold);
+        try {
+            return accountManagementService.releaseMoney(hold.getAmount(), hold.getAccountId());
+        } catch (RuntimeException e) {
+            restore(hold);
+            throw e;
+        }
+    }
+
+    public int openHolds() {
+        return holds.size();
+    }
+
+    private void remove(Hold hold) {
+        if (!holds.remove(hold.getHoldId(), hold)) {
+            throw new HoldNotFound(hold.getHoldId());
+        }
+    }
+
+    /**
+     * Puts back a hold whose settlement failed. Its expiry may have passed while it was out of the
+     * index, and a replacement hold has no timer yet, so it is scheduled to expire again.
+     */
+    private void restore(Hold hold) {
+        holds.put(hold.getHoldId(), hold);
+        holdTimer.schedule(Duration.ofMillis(Math.max(0, hold.getExpiresAt() - System.currentTimeMillis())),
+                () -> expire(hold));
+    }
+
+    /**
+     * Runs on the timer thread, so it only claims the hold and hands the release to the scheduler.
+     */
+    private void expire(Hold hold) {
+        if (!holds.remove(hold.getHoldId(), hold)) {
+            return;
+        }
+        try {
+            accountScheduler.schedule(() -> releaseExpired(hold));
+        } catch (RejectedExecutionException e) {
+            retryExpiry(hold, e);
+        }
+    }
+
+    private void releaseExpired(Hold hold) {
+        try {
+            accountManagementService.releaseMoney(hold.getAmount(), hold.getAccountId());
+            log.debug("hold {} on account {} expired", hold.getHoldId(), hold.getAccountId());
+        } catch (RuntimeException e) {
+            retryExpiry(hold, e);
+        }
+    }
+
+    private void retryExpiry(Hold hold, RuntimeException cause) {
+        Duration retryDelay = accountProperties.getHold().getRetryDelay();
+        log.warn("releasing expired hold {} on account {} failed, retrying in {}", hold.getHoldId(),
+                hold.getAccountId(), retryDelay, cause);
+        holds.put(hold.getHoldId(), hold);
+        holdTimer.schedule(retryDelay, () -> expire(hold));
+    }
+}
@@ -0,0 +1,62 @@
+package com.mts.api.service;
+
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.exceptions.impl.ServiceOverloaded;
+import com.mts.api.idempotency.IdempotencyCache;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over {@link AccountManagementService}.
+ * <p>
+ * Each call runs on the bounded {@code accountScheduler}, so callers never block and the number of
+ * threads touching the database stays fixed no matter how many requests are in flight. When its
+ * queue is full the returned {@link Mono} fails with {@link ServiceOverloaded}. Idempotency keys share
+ * their operation names and parameters with the blocking endpoints.
+ */
+@Service
+@AllArgsConstructor
+public class ReactiveAccountService {
+    private final AccountManagementService accountManagementService;
+    private final IdempotencyCache idempotencyCache;
+    private final Scheduler accountScheduler;
+
+    public Mono<AccountBalance> createAccount(String email, String username, String idempotencyKey) {
+        return offload(() -> idempotencyCache.execute(idempotencyKey, "create", Arrays.asList(email, username), AccountBalance.class,
+                () -> AccountBalance.of(accountManagementService.createAccount(email, username))));
+    }
+
+    public Mono<AccountBalance> getBalance(Long accountId) {
+        return offload(() -> accountManagementService.getBalance(accountId));
+    }
+
+    public Mono<AccountBalance> withdrawMoney(Money amount, Long accountId, String idempotencyKey) {
+        return offload(() -> idempotencyCache.execute(idempotencyKey, "withdraw", Arrays.asList(amount, accountId), AccountBalance.class,
+                () -> AccountBalance.of(accountManagementService.withdrawMoney(amount, accountId))));
+    }
+
+    public Mono<AccountBalance> depositMoney(Money amount, Long accountId, String idempotencyKey) {
+        return offload(() -> idempotencyCache.execute(idempotencyKey, "deposit", Arrays.asList(amount, accountId), AccountBalance.class,
+                () -> AccountBalance.of(accountManagementService.depositMoney(amount, accountId))));
+    }
+
+    public Mono<Void> transferMoney(Money amount, Long fromAccount, Long toAccount, String idempotencyKey) {
+        return offload(() -> idempotencyCache.execute(idempotencyKey, "transfer", Arrays.asList(amount, fromAccount, toAccount), Void.class, () -> {
+            accountManagementService.transferMoney(amount, fromAccount, toAccount);
+            return null;
+        }));
+    }
+
+    private <T> Mono<T> offload(Supplier<T> work) {
+        return Mono.fromSupplier(work)
+                .subscribeOn(accountScheduler)
+                .onErrorMap(RejectedExecutionException.class, e -> new ServiceOverloaded());
+    }
+}
@@ -1,61 +1,262 @@
 package com.mts.api.service.impl;
 
+import com.mts.api.cache.AccountBalanceCache;
+import com.mts.api.commit.GroupCommitWriter;
+import com.mts.api.config.AccountProperties;
 import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
 import com.mts.api.domain.User;
+import com.mts.api.dto.AccountBalance;
 import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.exceptions.impl.ConcurrentModification;
 import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.locking.StripedLocks;
 import com.mts.api.repository.AccountRepository;
 import com.mts.api.service.AccountManagementService;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
-import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static com.mts.api.config.AccountProperties.LockingStrategy.PESSIMISTIC;
+import static com.mts.api.config.AccountProperties.TransferMode.ORDERED_LOCK;
+import static com.mts.api.config.AccountProperties.WriteMode.GROUP_COMMIT;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@ConditionalOnProperty(prefix = "mts.account", name = "engine", havingValue = "jpa", matchIfMissing = true)
 public class AccountManagementServiceImpl implements AccountManagementService {
+    static final String RETRIES_METRIC = "mts.account.transaction.retries";
+    static final String ABORTS_METRIC = "mts.account.transaction.aborts";
+    static final String TRANSACTION_METRIC = "mts.account.transaction.time";
+
     private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StripedLocks stripedLocks;
+    private final AccountProperties accountProperties;
+    private final GroupCommitWriter groupCommitWriter;
+    private final AccountBalanceCache accountBalanceCache;
+    private final Timer transactionTimer;
+    private final Counter retries;
+    private final Counter aborts;
+
+    public AccountManagementServiceImpl(AccountRepository accountRepository, TransactionTemplate transactionTemplate,
+                                        StripedLocks stripedLocks, AccountProperties accountProperties,
+                                        MeterRegistry meterRegistry, GroupCommitWriter groupCommitWriter,
+                                        AccountBalanceCache accountBalanceCache) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.stripedLocks = stripedLocks;
+        this.accountProperties = accountProperties;
+        this.groupCommitWriter = groupCommitWriter;
+        this.accountBalanceCache = accountBalanceCache;
+        this.transactionTimer = meterRegistry.timer(TRANSACTION_METRIC);
+        this.retries = meterRegistry.counter(RETRIES_METRIC);
+        this.aborts = meterRegistry.counter(ABORTS_METRIC);
+    }
 
     @Override
     public Account createAccount(String email, String username) {
-        return accountRepository.save(Account.builder()
+        Account account = accountRepository.save(Account.builder()
                 .userId(User.builder()
                         .username(username)
                         .email(email)
                         .build())
-                .balance(BigDecimal.ZERO)
+                .balance(Money.ZERO)
                 .build());
+        accountBalanceCache.update(account);
+        return account;
     }
 
     @Override
-    public Account withdrawMoney(BigDecimal amount, Long accountId) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new AccountDoesNotExist(accountId));
-        if (account.getBalance().compareTo(amount) > -1) {
-            account.setBalance(account.getBalance().subtract(amount));
-            return accountRepository.save(account);
+    public AccountBalance getBalance(Long accountId) {
+        return accountBalanceCache.get(accountId);
+    }
+
+    @Override
+    public Account withdrawMoney(Money amount, Long accountId) {
+        return write(accountId, () -> withdraw(amount, find(accountId)));
+    }
+
+    @Override
+    public Account depositMoney(Money amount, Long accountId) {
+        return write(accountId, () -> deposit(amount, find(accountId)));
+    }
+
+    /**
+     * Withdraw and deposit commit in one transaction. In {@code ORDERED_LOCK} mode both account
+     * stripes are held until after the commit, so no other transfer can interleave with it.
+     */
+    @Override
+    public void transferMoney(Money amount, Long fromAccountId, Long toAccountId) {
+        Supplier<Account[]> mutation = () -> {
+            if (pessimistic()) {
+                // row locks are taken in id order so opposing transfers cannot deadlock in the database
+                lockForUpdate(Math.min(fromAccountId, toAccountId));
+                lockForUpdate(Math.max(fromAccountId, toAccountId));
+            }
+            // both accounts are resolved before either is changed, so a failed transfer changes nothing
+            Account from = find(fromAccountId);
+            Account to = find(toAccountId);
+            return new Account[]{withdraw(amount, from), deposit(amount, to)};
+        };
+        Account[] updated;
+        if (groupCommit()) {
+            updated = groupCommitted(fromAccountId, () -> {
+                Account[] accounts = mutation.get();
+                return new Account[]{snapshot(accounts[0]), snapshot(accounts[1])};
+            });
+        } else if (orderedLocking()) {
+            updated = stripedLocks.withLocks(fromAccountId, toAccountId, () -> inTransaction(fromAccountId, mutation));
         } else {
-            throw new InsufficientBalance(amount);
+            updated = inTransaction(fromAccountId, mutation);
         }
+        for (Account account : updated) {
+            accountBalanceCache.update(account);
+        }
+    }
+
+    @Override
+    public Account holdMoney(Money amount, Long accountId) {
+        return write(accountId, () -> {
+            Account account = find(accountId);
+            if (account.getAvailable().isLessThan(amount)) {
+                throw new InsufficientBalance(amount);
+            }
+            account.setHeld(account.getHeld().plus(amount));
+            return accountRepository.save(account);
+        });
     }
 
     @Override
-    public Account depositMoney(BigDecimal amount, Long accountId) {
-        return accountRepository.findById(accountId)
-                .map(account -> {
-                    account.setBalance(account.getBalance().add(amount));
-                    return accountRepository.save(account);
-                }).orElseThrow(() -> new AccountDoesNotExist(accountId));
+    public Account releaseMoney(Money amount, Long accountId) {
+        return write(accountId, () -> {
+            Account account = find(accountId);
+            account.setHeld(account.getHeld().minus(amount));
+            return accountRepository.save(account);
+        });
     }
 
-    @Transactional
     @Override
-    public void transferMoney(BigDecimal amount, Long fromAccountId, Long toAccountId) {
-        withdrawMoney(amount, fromAccountId);
-        depositMoney(amount, toAccountId);
+    public Account captureMoney(Money amount, Long accountId) {
+        return write(accountId, () -> {
+            Account account = find(accountId);
+            account.setHeld(account.getHeld().minus(amount));
+            account.setBalance(account.getBalance().minus(amount));
+            return accountRepository.save(account);
+        });
+    }
+
+    private Account withdraw(Money amount, Account account) {
+        if (account.getAvailable().isLessThan(amount)) {
+            throw new InsufficientBalance(amount);
+        }
+        account.setBalance(account.getBalance().minus(amount));
+        return accountRepository.save(account);
+    }
+
+    private Account deposit(Money amount, Account account) {
+        account.setBalance(account.getBalance().plus(amount));
+        return accountRepository.save(account);
+    }
+
+    /**
+     * Applies a single-account mutation and publishes the committed state to the balance cache.
+     */
+    private Account write(Long accountId, Supplier<Account> mutation) {
+        Account account = groupCommit()
+                ? groupCommitted(accountId, () -> snapshot(mutation.get()))
+                : locked(accountId, () -> inTransaction(accountId, mutation));
+        accountBalanceCache.update(account);
+        return account;
+    }
+
+    private Account find(Long accountId) {
+        return (pessimistic() ? accountRepository.findByIdForUpdate(accountId) : accountRepository.findById(accountId))
+                .orElseThrow(() -> new AccountDoesNotExist(accountId));
+    }
+
+    private void lockForUpdate(Long accountId) {
+        accountRepository.findByIdForUpdate(accountId).orElseThrow(() -> new AccountDoesNotExist(accountId));
+    }
+
+    /**
+     * Mutations in one group transaction may change the same account, and the managed entity would
+     * show every caller the batch's final state. Each caller gets a detached copy of its own result
+     * instead. The flush first gives each copy the version its change was written with.
+     */
+    private Account snapshot(Account account) {
+        accountRepository.flush();
+        return Account.builder()
+                .accountId(account.getAccountId())
+                .userId(account.getUserId())
+                .balance(account.getBalance())
+                .held(account.getHeld())
+                .version(account.getVersion())
+                .build();
+    }
+
+    /**
+     * Runs {@code action} in its own transaction, retried like {@link #retrying}.
+     */
+    private <T> T inTransaction(Long accountId, Supplier<T> action) {
+        return retrying(accountId, () -> timedTransaction(action));
+    }
+
+    /**
+     * Runs {@code action} in the next group transaction, retried like {@link #retrying}.
+     */
+    private <T> T groupCommitted(Long accountId, Supplier<T> action) {
+        return retrying(accountId, () -> groupCommitWriter.submit(action));
+    }
+
+    /**
+     * Under the optimistic strategy a version conflict at commit re-runs {@code transaction} up to
+     * {@code max-retries} times and then fails with {@link ConcurrentModification}.
+     */
+    private <T> T retrying(Long accountId, Supplier<T> transaction) {
+        if (pessimistic()) {
+            return transaction.get();
+        }
+        int maxRetries = accountProperties.getLocking().getMaxRetries();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return transaction.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxRetries) {
+                    aborts.increment();
+                    throw new ConcurrentModification(accountId);
+                }
+                retries.increment();
+                log.debug("version conflict on account {}, retrying ({}/{})", accountId, attempt + 1, maxRetries);
+            }
+        }
+    }
+
+    private <T> T timedTransaction(Supplier<T> action) {
+        return transactionTimer.record(() -> transactionTemplate.execute(status -> action.get()));
+    }
+
+    private <T> T locked(Long accountId, Supplier<T> action) {
+        return orderedLocking() ? stripedLocks.withLock(accountId, action) : action.get();
+    }
+
+    private boolean orderedLocking() {
+        return accountProperties.getLocking().getTransferMode() == ORDERED_LOCK;
+    }
+
+    private boolean groupCommit() {
+        return accountProperties.getWriteMode() == GROUP_COMMIT;
+    }
+
+    private boolean pessimistic() {
+        return accountProperties.getLocking().getStrategy() == PESSIMISTIC;
     }
 
 }
@@ -0,0 +1,217 @@
+package com.mts.api.service.impl;
+
+import com.mts.api.cache.AccountBalanceCache;
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.BatchTransferResponse;
+import com.mts.api.dto.TransferRequest;
+import com.mts.api.dto.TransferResult;
+import com.mts.api.journal.RecordType;
+import com.mts.api.journal.TransactionJournal;
+import com.mts.api.service.BatchTransferService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@link BatchTransferService} that settles transfers directly with JDBC.
+ * <p>
+ * Transfers are consumed in chunks, and a chunk is read completely before its transaction starts. Each
+ * chunk is one transaction: the involved account rows are locked in id order and read once, every transfer is checked in order against the running available balances, and the
+ * accepted ones are netted into a single delta per account that is written with one JDBC batch.
+ * <p>
+ * If the input cannot be read, the chunks already settled stay committed and everything from the
+ * current chunk on is reported as not run.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "mts.account", name = "engine", havingValue = "jpa", matchIfMissing = true)
+public class JdbcBatchTransferService implements BatchTransferService {
+    private static final String SELECT_FOR_UPDATE =
+            "select account_id, balance - coalesce(held, 0) from account where account_id in (:ids) order by account_id for update";
+    private static final String APPLY_DELTA =
+            "update account set balance = balance + ?, version = version + 1 where account_id = ?";
+
+    private static final long INVALID_AMOUNT = -1L;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountProperties accountProperties;
+    private final TransactionJournal transactionJournal;
+    private final AccountBalanceCache accountBalanceCache;
+
+    @Override
+    public BatchTransferResponse transfer(Iterator<TransferRequest> transfers) {
+        int chunkSize = accountProperties.getBatch().getChunkSize();
+        List<TransferResult> results = new ArrayList<>();
+        List<TransferRequest> chunk = new ArrayList<>(chunkSize);
+        for (; ; ) {
+            if (!read(transfers, chunk, chunkSize)) {
+                return BatchTransferResponse.unreadable(results, chunk.size());
+            }
+            if (chunk.isEmpty()) {
+                return BatchTransferResponse.of(results);
+            }
+            results.addAll(settle(chunk, results.size()));
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Fills {@code chunk} with up to {@code chunkSize} transfers.
+     *
+     * @return false if the input could not be read
+     */
+    private static boolean read(Iterator<TransferRequest> transfers, List<TransferRequest> chunk, int chunkSize) {
+        try {
+            while (chunk.size() < chunkSize && transfers.hasNext()) {
+                chunk.add(transfers.next());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("batch transfer input unreadable after {} items of the current chunk", chunk.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Settles one chunk in its own transaction. Any failure, in the statements or in beginning or
+     * committing the transaction, marks the chunk failed, so the results of earlier chunks are still
+     * returned to the client.
+     */
+    private List<TransferResult> settle(List<TransferRequest> chunk, int offset) {
+        List<TransferResult> results;
+        try {
+            results = transactionTemplate.execute(status -> settleInTransaction(chunk, offset));
+        } catch (RuntimeException e) {
+            log.error("batch chunk starting at {} failed", offset, e);
+            List<TransferResult> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(TransferResult.failed(offset + i, "Transaction failed"));
+            }
+            return failed;
+        }
+        afterCommit(chunk, results);
+        return results;
+    }
+
+    /**
+     * Journals the applied transfers and drops the changed accounts from the balance cache, whose new
+     * versions are only known to the database.
+     */
+    private void afterCommit(List<TransferRequest> chunk, List<TransferResult> results) {
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results.get(i).getStatus() == TransferResult.Status.APPLIED) {
+                TransferRequest transfer = chunk.get(i);
+                journal(transfer);
+                accountBalanceCache.invalidate(transfer.getFromAccount());
+                accountBalanceCache.invalidate(transfer.getToAccount());
+            }
+        }
+    }
+
+    /**
+     * The chunk has committed, so a failed append is only logged: failing the request would make the
+     * client apply the batch again.
+     */
+    private void journal(TransferRequest transfer) {
+        try {
+            transactionJournal.append(RecordType.TRANSFER, transfer.getFromAccount(), transfer.getToAccount(),
+                    Money.of(transfer.getAmount()).units());
+        } catch (RuntimeException e) {
+            log.error("transfer {} took effect but was not journaled", transfer, e);
+        }
+    }
+
+    private List<TransferResult> settleInTransaction(List<TransferRequest> chunk, int offset) {
+        Map<Long, Long> balances = lockBalances(chunk);
+        Map<Long, Long> deltas = new HashMap<>();
+        List<TransferResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequest transfer = chunk.get(i);
+            long units = units(transfer.getAmount());
+            String rejection = validate(transfer, units, balances);
+            if (rejection != null) {
+                results.add(TransferResult.rejected(offset + i, rejection));
+                continue;
+            }
+            balances.merge(transfer.getFromAccount(), -units, Long::sum);
+            balances.merge(transfer.getToAccount(), units, Long::sum);
+            deltas.merge(transfer.getFromAccount(), -units, Long::sum);
+            deltas.merge(transfer.getToAccount(), units, Long::sum);
+            results.add(TransferResult.applied(offset + i));
+        }
+        applyDeltas(deltas);
+        return results;
+    }
+
+    private static long units(BigDecimal amount) {
+        try {
+            return amount == null ? INVALID_AMOUNT : Money.of(amount).units();
+        } catch (ArithmeticException e) {
+            return INVALID_AMOUNT;
+        }
+    }
+
+    private String validate(TransferRequest transfer, long units, Map<Long, Long> balances) {
+        if (units <= 0) {
+            return "Amount must be positive with at most " + Money.SCALE + " decimal places";
+        }
+        if (!balances.containsKey(transfer.getFromAccount())) {
+            return "Account does not exist: " + transfer.getFromAccount();
+        }
+        if (!balances.containsKey(transfer.getToAccount())) {
+            return "Account does not exist: " + transfer.getToAccount();
+        }
+        if (balances.get(transfer.getFromAccount()) < units) {
+            return "There isn't enough balance: " + transfer.getAmount();
+        }
+        return null;
+    }
+
+    private Map<Long, Long> lockBalances(List<TransferRequest> chunk) {
+        Set<Long> ids = new TreeSet<>();
+        for (TransferRequest transfer : chunk) {
+            if (transfer.getFromAccount() != null) {
+                ids.add(transfer.getFromAccount());
+            }
+            if (transfer.getToAccount() != null) {
+                ids.add(transfer.getToAccount());
+            }
+        }
+        Map<Long, Long> balances = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return balances;
+        }
+        jdbcTemplate.query(SELECT_FOR_UPDATE, Collections.singletonMap("ids", new ArrayList<>(ids)), rs -> {
+            balances.put(rs.getLong(1), Money.of(rs.getBigDecimal(2)).units());
+        });
+        return balances;
+    }
+
+    private void applyDeltas(Map<Long, Long> deltas) {
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((accountId, delta) -> {
+            if (delta != 0) {
+                updates.add(new Object[]{Money.ofUnits(delta).toBigDecimal(), accountId});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(APPLY_DELTA, updates);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.mts.api.service.impl;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.domain.User;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.ledger.Ledger;
+import com.mts.api.ledger.LedgerAccount;
+import com.mts.api.ledger.WriteBehindStore;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.service.AccountManagementService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link AccountManagementService} that serves balances from the in-memory {@link Ledger}.
+ * <p>
+ * Accounts are loaded from {@link AccountRepository} on first use and afterwards only written back
+ * asynchronously through the {@link WriteBehindStore}. Debits are compare-and-set on the account
+ * balance, so concurrent withdrawals and transfers can never overdraw an account.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "mts.account", name = "engine", havingValue = "ledger")
+public class LedgerAccountManagementService implements AccountManagementService {
+    private final AccountRepository accountRepository;
+    private final Ledger ledger;
+    private final WriteBehindStore writeBehindStore;
+
+    @Override
+    public Account createAccount(String email, String username) {
+        Account account = accountRepository.save(Account.builder()
+                .userId(User.builder()
+                        .username(username)
+                        .email(email)
+                        .build())
+                .balance(Money.ZERO)
+                .build());
+        ledger.put(LedgerAccount.of(account));
+        return account;
+    }
+
+    /**
+     * The ledger is the authoritative balance, so it needs no separate cache.
+     */
+    @Override
+    public AccountBalance getBalance(Long accountId) {
+        LedgerAccount account = load(accountId);
+        return new AccountBalance(accountId, Money.ofUnits(account.balance()), Money.ofUnits(account.held()), null);
+    }
+
+    @Override
+    public Account withdrawMoney(Money amount, Long accountId) {
+        LedgerAccount account = load(accountId);
+        long balance = account.debit(amount.units());
+        if (balance == LedgerAccount.INSUFFICIENT) {
+            throw new InsufficientBalance(amount);
+        }
+        writeBehindStore.markDirty(account);
+        return account.toAccount(balance);
+    }
+
+    @Override
+    public Account depositMoney(Money amount, Long accountId) {
+        LedgerAccount account = load(accountId);
+        long balance = account.credit(amount.units());
+        writeBehindStore.markDirty(account);
+        return account.toAccount(balance);
+    }
+
+    @Override
+    public void transferMoney(Money amount, Long fromAccountId, Long toAccountId) {
+        long units = amount.units();
+        LedgerAccount from = load(fromAccountId);
+        LedgerAccount to = load(toAccountId);
+        if (from.debit(units) == LedgerAccount.INSUFFICIENT) {
+            throw new InsufficientBalance(amount);
+        }
+        to.credit(units);
+        writeBehindStore.markDirty(from);
+        writeBehindStore.markDirty(to);
+    }
+
+    @Override
+    public Account holdMoney(Money amount, Long accountId) {
+        LedgerAccount account = load(accountId);
+        long available = account.hold(amount.units());
+        if (available == LedgerAccount.INSUFFICIENT) {
+            throw new InsufficientBalance(amount);
+        }
+        writeBehindStore.markDirty(account);
+        return account.toAccount(available);
+    }
+
+    @Override
+    public Account releaseMoney(Money amount, Long accountId) {
+        LedgerAccount account = load(accountId);
+        long available = account.release(amount.units());
+        writeBehindStore.markDirty(account);
+        return account.toAccount(available);
+    }
+
+    @Override
+    public Account captureMoney(Money amount, Long accountId) {
+        LedgerAccount account = load(accountId);
+        long available = account.capture(amount.units());
+        writeBehindStore.markDirty(account);
+        return account.toAccount(available);
+    }
+
+    private LedgerAccount load(Long accountId) {
+        LedgerAccount account = ledger.get(accountId, id -> accountRepository.findById(id)
+                .map(LedgerAccount::of)
+                .orElse(null));
+        if (account == null) {
+            throw new AccountDoesNotExist(accountId);
+        }
+        return account;
+    }
+}
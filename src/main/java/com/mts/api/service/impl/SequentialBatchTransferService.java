@@ -0,0 +1,50 @@
+package com.mts.api.service.impl;
+
+import com.mts.api.domain.Money;
+import com.mts.api.dto.BatchTransferResponse;
+import com.mts.api.dto.TransferRequest;
+import com.mts.api.dto.TransferResult;
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.service.AccountManagementService;
+import com.mts.api.service.BatchTransferService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link BatchTransferService} for in-memory engines, where a single transfer is already cheap:
+ * each transfer is handed to {@link AccountManagementService} in order.
+ */
+@Service
+@AllArgsConstructor
+@ConditionalOnExpression("!'${mts.account.engine:jpa}'.equalsIgnoreCase('jpa')")
+public class SequentialBatchTransferService implements BatchTransferService {
+    private final AccountManagementService accountManagementService;
+
+    @Override
+    public BatchTransferResponse transfer(Iterator<TransferRequest> transfers) {
+        List<TransferResult> results = new ArrayList<>();
+        for (int index = 0; ; index++) {
+            TransferRequest transfer;
+            try {
+                if (!transfers.hasNext()) {
+                    break;
+                }
+                transfer = transfers.next();
+            } catch (RuntimeException e) {
+                return BatchTransferResponse.unreadable(results, 0);
+            }
+            try {
+                accountManagementService.transferMoney(Money.of(transfer.getAmount()), transfer.getFromAccount(), transfer.getToAccount());
+                results.add(TransferResult.applied(index));
+            } catch (ApiError | ArithmeticException e) {
+                results.add(TransferResult.rejected(index, e.getMessage()));
+            }
+        }
+        return BatchTransferResponse.of(results);
+    }
+}
@@ -0,0 +1,195 @@
+package com.mts.api.service.impl;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.domain.User;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.ledger.LedgerAccount;
+import com.mts.api.ledger.WriteBehindStore;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.service.AccountManagementService;
+import com.mts.api.shard.AccountNotLoaded;
+import com.mts.api.shard.Shard;
+import com.mts.api.shard.ShardedLedger;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * {@link AccountManagementService} on the {@link ShardedLedger}: every account belongs to one shard
+ * thread, and all changes to it run there as commands, so no locks or retries are needed.
+ * <p>
+ * A transfer within one shard is a single command. A transfer across shards takes three messages:
+ * the source shard moves the amount from the account into a reservation, the target shard credits
+ * it, and the source shard then settles the reservation, or refunds it if the credit failed. Money
+ * is always either in an account or in exactly one reservation, so it is never created or lost.
+ * Balances are persisted by the {@link WriteBehindStore}.
+ */
+@Service
+@AllArgsConstructor
+@ConditionalOnProperty(prefix = "mts.account", name = "engine", havingValue = "sharded")
+public class ShardedAccountManagementService implements AccountManagementService {
+    private final AccountRepository accountRepository;
+    private final ShardedLedger shardedLedger;
+    private final WriteBehindStore writeBehindStore;
+
+    @Override
+    public Account createAccount(String email, String username) {
+        Account account = accountRepository.save(Account.builder()
+                .userId(User.builder()
+                        .username(username)
+                        .email(email)
+                        .build())
+                .balance(Money.ZERO)
+                .build());
+        await(shardedLedger.shardOf(account.getAccountId()).submit(shard -> shard.install(LedgerAccount.of(account))));
+        return account;
+    }
+
+    @Override
+    public AccountBalance getBalance(Long accountId) {
+        return onShard(accountId, shard -> {
+            LedgerAccount account = shard.require(accountId);
+            return new AccountBalance(accountId, Money.ofUnits(account.balance()), Money.ofUnits(account.held()), null);
+        });
+    }
+
+    @Override
+    public Account withdrawMoney(Money amount, Long accountId) {
+        return onShard(accountId, shard -> {
+            LedgerAccount account = shard.require(accountId);
+            long balance = account.debit(amount.units());
+            if (balance == LedgerAccount.INSUFFICIENT) {
+                throw new InsufficientBalance(amount);
+            }
+            writeBehindStore.markDirty(account);
+            return account.toAccount(balance);
+        });
+    }
+
+    @Override
+    public Account depositMoney(Money amount, Long accountId) {
+        return onShard(accountId, shard -> credit(shard, accountId, amount.units()));
+    }
+
+    @Override
+    public void transferMoney(Money amount, Long fromAccountId, Long toAccountId) {
+        long units = amount.units();
+        Shard source = shardedLedger.shardOf(fromAccountId);
+        if (source == shardedLedger.shardOf(toAccountId)) {
+            onShard(fromAccountId, shard -> {
+                LedgerAccount from = shard.require(fromAccountId);
+                LedgerAccount to = shard.require(toAccountId);
+                if (from.debit(units) == LedgerAccount.INSUFFICIENT) {
+                    throw new InsufficientBalance(amount);
+                }
+                to.credit(units);
+                writeBehindStore.markDirty(from);
+                writeBehindStore.markDirty(to);
+                return null;
+            });
+            return;
+        }
+        long reservation = onShard(fromAccountId, shard -> {
+            LedgerAccount from = shard.require(fromAccountId);
+            long id = shard.reserve(from, units);
+            if (id == LedgerAccount.INSUFFICIENT) {
+                throw new InsufficientBalance(amount);
+            }
+            writeBehindStore.markDirty(from);
+            return id;
+        });
+        try {
+            onShard(toAccountId, shard -> credit(shard, toAccountId, units));
+        } catch (RuntimeException e) {
+            await(source.submit(shard -> {
+                writeBehindStore.markDirty(shard.refund(reservation));
+                return null;
+            }));
+            throw e;
+        }
+        source.submit(shard -> {
+            shard.settle(reservation);
+            return null;
+        });
+    }
+
+    @Override
+    public Account holdMoney(Money amount, Long accountId) {
+        return onShard(accountId, shard -> {
+            LedgerAccount account = shard.require(accountId);
+            long available = account.hold(amount.units());
+            if (available == LedgerAccount.INSUFFICIENT) {
+                throw new InsufficientBalance(amount);
+            }
+            writeBehindStore.markDirty(account);
+            return account.toAccount(available);
+        });
+    }
+
+    @Override
+    public Account releaseMoney(Money amount, Long accountId) {
+        return onShard(accountId, shard -> {
+            LedgerAccount account = shard.require(accountId);
+            long available = account.release(amount.units());
+            writeBehindStore.markDirty(account);
+            return account.toAccount(available);
+        });
+    }
+
+    @Override
+    public Account captureMoney(Money amount, Long accountId) {
+        return onShard(accountId, shard -> {
+            LedgerAccount account = shard.require(accountId);
+            long available = account.capture(amount.units());
+            writeBehindStore.markDirty(account);
+            return account.toAccount(available);
+        });
+    }
+
+    private Account credit(Shard shard, Long accountId, long units) {
+        LedgerAccount account = shard.require(accountId);
+        long balance = account.credit(units);
+        writeBehindStore.markDirty(account);
+        return account.toAccount(balance);
+    }
+
+    /**
+     * Runs {@code command} on the shard owning {@code accountId}. Accounts the command needs but the
+     * shard has not seen yet are loaded on the calling thread and the command is run again.
+     */
+    private <T> T onShard(Long accountId, Function<Shard, T> command) {
+        Shard shard = shardedLedger.shardOf(accountId);
+        while (true) {
+            try {
+                return await(shard.submit(command));
+            } catch (AccountNotLoaded e) {
+                load(e.getAccountId());
+            }
+        }
+    }
+
+    private void load(Long accountId) {
+        LedgerAccount account = accountRepository.findById(accountId)
+                .map(LedgerAccount::of)
+                .orElseThrow(() -> new AccountDoesNotExist(accountId));
+        await(shardedLedger.shardOf(accountId).submit(shard -> shard.install(account)));
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
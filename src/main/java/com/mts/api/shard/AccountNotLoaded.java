@@ -0,0 +1,17 @@
+package com.mts.api.shard;
+
+import lombok.Getter;
+
+/**
+ * Raised inside a shard command when an account has not been loaded into its shard yet. Loading
+ * blocks on the database, so it is done by the caller, never on the shard thread.
+ */
+@Getter
+public class AccountNotLoaded extends RuntimeException {
+    private final Long accountId;
+
+    public AccountNotLoaded(Long accountId) {
+        super(null, null, false, false);
+        this.accountId = accountId;
+    }
+}
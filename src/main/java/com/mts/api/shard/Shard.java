@@ -0,0 +1,183 @@
+package com.mts.api.shard;
+
+import com.mts.api.exceptions.impl.ServiceOverloaded;
+import com.mts.api.ledger.LedgerAccount;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * A partition of the accounts owned by a single thread.
+ * <p>
+ * Any thread may {@link #submit} a command; commands run one at a time, in submission order, on the
+ * shard's own thread, which is the only thread that touches the shard's state. The state methods
+ * ({@link #require}, {@link #reserve}, ...) must therefore only be called from within a command.
+ * <p>
+ * Commands queued before {@link #shutdown} still run; commands submitted after it, or left in the
+ * queue when the thread stops, fail with {@link ServiceOverloaded} so no caller waits forever.
+ */
+@Slf4j
+public final class Shard {
+    private final Map<Long, LedgerAccount> accounts = new HashMap<>();
+    private final Map<Long, Reservation> reservations = new HashMap<>();
+    private final Queue<Command<?>> commands = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+    private long reservationSequence;
+    private long reserved;
+
+    Shard(int index) {
+        thread = new Thread(this::run, "ledger-shard-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public <T> CompletableFuture<T> submit(Function<Shard, T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(new ServiceOverloaded());
+            return result;
+        }
+        commands.offer(new Command<>(command, result));
+        if (!running) {
+            // shut down while offering; the loop may have exited without seeing the command
+            failQueued();
+        } else if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+        return result;
+    }
+
+    /**
+     * @throws AccountNotLoaded if the account has not been installed in this shard yet
+     */
+    public LedgerAccount require(Long accountId) {
+        LedgerAccount account = accounts.get(accountId);
+        if (account == null) {
+            throw new AccountNotLoaded(accountId);
+        }
+        return account;
+    }
+
+    /**
+     * Adds an account unless it is already present and returns the one the shard keeps.
+     */
+    public LedgerAccount install(LedgerAccount account) {
+        LedgerAccount existing = accounts.putIfAbsent(account.getAccountId(), account);
+        return existing != null ? existing : account;
+    }
+
+    /**
+     * Debits {@code units} into a reservation, the first step of a cross-shard transfer. Reserved money
+     * belongs to neither account until it is {@link #settle settled} or {@link #refund refunded}.
+     *
+     * @return the reservation id, or {@link LedgerAccount#INSUFFICIENT} if nothing was debited
+     */
+    public long reserve(LedgerAccount account, long units) {
+        if (account.debit(units) == LedgerAccount.INSUFFICIENT) {
+            return LedgerAccount.INSUFFICIENT;
+        }
+        long id = ++reservationSequence;
+        reservations.put(id, new Reservation(account, units));
+        reserved += units;
+        return id;
+    }
+
+    /**
+     * Completes a reservation whose money has been credited on the other shard.
+     */
+    public void settle(long reservationId) {
+        reserved -= reservations.remove(reservationId).units;
+    }
+
+    /**
+     * Returns reserved money to its account after the credit on the other shard failed.
+     */
+    public LedgerAccount refund(long reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        reserved -= reservation.units;
+        reservation.account.credit(reservation.units);
+        return reservation.account;
+    }
+
+    /**
+     * @return the sum of all account balances in this shard plus money in open reservations
+     */
+    public long total() {
+        long total = reserved;
+        for (LedgerAccount account : accounts.values()) {
+            total += account.balance();
+        }
+        return total;
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running || !commands.isEmpty()) {
+            Command<?> command = commands.poll();
+            if (command != null) {
+                command.run(this);
+                continue;
+            }
+            sleeping = true;
+            if (running && commands.isEmpty()) {
+                LockSupport.park(this);
+            }
+            sleeping = false;
+        }
+        failQueued();
+        log.debug("{} stopped", thread.getName());
+    }
+
+    private void failQueued() {
+        Command<?> command;
+        while ((command = commands.poll()) != null) {
+            command.result.completeExceptionally(new ServiceOverloaded());
+        }
+    }
+
+    private static final class Command<T> {
+        private final Function<Shard, T> function;
+        private final CompletableFuture<T> result;
+
+        private Command(Function<Shard, T> function, CompletableFuture<T> result) {
+            this.function = function;
+            this.result = result;
+        }
+
+        private void run(Shard shard) {
+            try {
+                result.complete(function.apply(shard));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Reservation {
+        private final LedgerAccount account;
+        private final long units;
+
+        private Reservation(LedgerAccount account, long units) {
+            this.account = account;
+            this.units = units;
+        }
+    }
+}
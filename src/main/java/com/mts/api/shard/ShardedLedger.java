@@ -0,0 +1,41 @@
+package com.mts.api.shard;
+
+/**
+ * Fixed set of {@link Shard}s; every account id always maps to the same shard.
+ */
+public class ShardedLedger {
+    private final Shard[] shards;
+
+    public ShardedLedger(int shards) {
+        this.shards = new Shard[Math.max(1, shards)];
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = new Shard(i);
+        }
+    }
+
+    public Shard shardOf(Long accountId) {
+        long hash = accountId * 0x9E3779B97F4A7C15L;
+        return shards[(int) ((hash >>> 32) % shards.length)];
+    }
+
+    public int size() {
+        return shards.length;
+    }
+
+    /**
+     * @return the money held across all shards; only exact when no operation is in flight
+     */
+    public long total() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.submit(Shard::total).join();
+        }
+        return total;
+    }
+
+    public void shutdown() {
+        for (Shard shard : shards) {
+            shard.shutdown();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mts.api.snapshot;
+
+import com.mts.api.journal.JournalRecord;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Balance and version of every account as of a journal sequence. Versions count the movements
+ * applied to an account, starting at 0 when it is created.
+ * <p>
+ * Not thread-safe; it is only ever folded forward by the thread that owns it.
+ */
+public class BalanceSnapshot {
+    @Getter
+    private long sequence;
+    private final Map<Long, long[]> accounts;
+
+    BalanceSnapshot(long sequence, Map<Long, long[]> accounts) {
+        this.sequence = sequence;
+        this.accounts = accounts;
+    }
+
+    public static BalanceSnapshot empty() {
+        return new BalanceSnapshot(0, new HashMap<>());
+    }
+
+    /**
+     * Folds one journal record into the snapshot and advances its sequence past it.
+     */
+    public void apply(JournalRecord record) {
+        switch (record.getType()) {
+            case CREATE:
+                accounts.putIfAbsent(record.getAccountId(), new long[]{0, 0});
+                break;
+            case DEPOSIT:
+                move(record.getAccountId(), record.getAmount());
+                break;
+            case WITHDRAW:
+                move(record.getAccountId(), -record.getAmount());
+                break;
+            case TRANSFER:
+                move(record.getAccountId(), -record.getAmount());
+                move(record.getCounterparty(), record.getAmount());
+                break;
+            default:
+                throw new IllegalStateException("unknown record type " + record.getType());
+        }
+        sequence = record.getSequence();
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    /**
+     * @return account balances in minor units, detached from the snapshot
+     */
+    public Map<Long, Long> balances() {
+        Map<Long, Long> balances = new HashMap<>(accounts.size() * 4 / 3 + 1);
+        accounts.forEach((accountId, state) -> balances.put(accountId, state[0]));
+        return balances;
+    }
+
+    long balance(long accountId) {
+        return accounts.get(accountId)[0];
+    }
+
+    long version(long accountId) {
+        return accounts.get(accountId)[1];
+    }
+
+    void forEach(EntryConsumer consumer) {
+        accounts.forEach((accountId, state) -> consumer.accept(accountId, state[0], state[1]));
+    }
+
+    private void move(long accountId, long units) {
+        long[] state = accounts.computeIfAbsent(accountId, id -> new long[]{0, 0});
+        state[0] += units;
+        state[1]++;
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long accountId, long balance, long version);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mts.api.snapshot;
+
+import com.mts.api.journal.TransactionJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+
+/**
+ * Keeps a {@link BalanceSnapshot} folded up to the durable end of the transaction journal and
+ * periodically writes it to a {@link SnapshotStore}.
+ * <p>
+ * Recovery loads the newest snapshot and replays only the journal records after it, so startup
+ * time is bounded by the number of accounts plus one snapshot interval of history. Snapshots are
+ * built from the journal alone, never from live engine state, so every snapshot corresponds
+ * exactly to a journal sequence whatever engine is running. Records that are written but not yet
+ * forced are left for the next checkpoint, so a snapshot can never get ahead of what survives a crash.
+ */
+@Slf4j
+public class BalanceSnapshotter {
+    private final TransactionJournal transactionJournal;
+    private final SnapshotStore snapshotStore;
+    private BalanceSnapshot snapshot;
+    private long savedSequence;
+
+    public BalanceSnapshotter(TransactionJournal transactionJournal, SnapshotStore snapshotStore) {
+        this.transactionJournal = transactionJournal;
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * Loads the newest snapshot and folds in the journal records written after it.
+     *
+     * @return the recovered balances in minor units
+     */
+    public synchronized Map<Long, Long> recover() {
+        long started = System.nanoTime();
+        snapshot = snapshotStore.latest().orElseGet(BalanceSnapshot::empty);
+        savedSequence = snapshot.getSequence();
+        catchUp();
+        log.info("recovered {} accounts from snapshot at sequence {} and {} journal records in {} ms",
+                snapshot.size(), savedSequence, snapshot.getSequence() - savedSequence,
+                (System.nanoTime() - started) / 1_000_000);
+        return snapshot.balances();
+    }
+
+    /**
+     * Writes a new snapshot if any journal record became durable since the previous one.
+     */
+    @Scheduled(fixedDelayString = "${mts.snapshot.interval:PT1M}", initialDelayString = "${mts.snapshot.interval:PT1M}")
+    public synchronized void checkpoint() {
+        if (snapshot == null) {
+            recover();
+        }
+        catchUp();
+        if (snapshot.getSequence() > savedSequence) {
+            snapshotStore.save(snapshot);
+            savedSequence = snapshot.getSequence();
+            log.debug("wrote snapshot of {} accounts at sequence {}", snapshot.size(), snapshot.getSequence());
+        }
+    }
+
+    private void catchUp() {
+        long durable = transactionJournal.durableSequence();
+        transactionJournal.replay(snapshot.getSequence(), record -> {
+            if (record.getSequence() <= durable) {
+                snapshot.apply(record);
+            }
+        });
+    }
+}
@@ -0,0 +1,180 @@
+package com.mts.api.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Directory of binary {@link BalanceSnapshot} files, named after their journal sequence so they
+ * sort oldest first:
+ * <pre>
+ *  0  magic          int   ('MTSS')
+ *  4  format         int
+ *  8  sequence       long  (last journal record folded in)
+ * 16  count          int
+ * 20  entries        count x (accountId long, balance long, version long)
+ *  .  crc32          int   (over every preceding byte)
+ * </pre>
+ * A snapshot is written to a temporary file, forced and then renamed, so a crash never leaves a
+ * partial file under a snapshot name. The newest {@code retain} snapshots are kept; reading falls
+ * back to an older one if the newest fails its checksum.
+ */
+@Slf4j
+public class SnapshotStore {
+    static final String SUFFIX = ".snap";
+    private static final int MAGIC = 0x4d545353;
+    private static final int FORMAT = 1;
+    private static final int HEADER = 20;
+    private static final int ENTRY = 3 * Long.BYTES;
+    private static final int CHUNK = 64 * 1024;
+
+    private final Path directory;
+    private final int retain;
+
+    public SnapshotStore(Path directory, int retain) {
+        this.directory = directory;
+        this.retain = Math.max(1, retain);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot create snapshot directory " + directory, e);
+        }
+    }
+
+    public void save(BalanceSnapshot snapshot) {
+        Path target = directory.resolve(String.format("snapshot-%020d%s", snapshot.getSequence(), SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK);
+            buffer.putInt(MAGIC).putInt(FORMAT).putLong(snapshot.getSequence()).putInt(snapshot.size());
+            snapshot.forEach((accountId, balance, version) -> {
+                if (buffer.remaining() < ENTRY) {
+                    drain(channel, buffer, crc);
+                }
+                buffer.putLong(accountId).putLong(balance).putLong(version);
+            });
+            drain(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue()).flip();
+            write(channel, buffer);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot write snapshot " + temporary, e);
+        }
+        try {
+            Files.move(temporary, target, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot publish snapshot " + target, e);
+        }
+        prune();
+    }
+
+    /**
+     * @return the newest readable snapshot, if any
+     */
+    public Optional<BalanceSnapshot> latest() {
+        List<Path> snapshots = snapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Optional<BalanceSnapshot> snapshot = read(snapshots.get(i));
+            if (snapshot.isPresent()) {
+                return snapshot;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<BalanceSnapshot> read(Path path) {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            long size = channel.size();
+            if (size < HEADER + Integer.BYTES) {
+                log.warn("ignoring truncated snapshot {}", path);
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                log.warn("ignoring snapshot {} with an unknown format", path);
+                return Optional.empty();
+            }
+            long sequence = buffer.getLong();
+            int count = buffer.getInt();
+            if (size != HEADER + (long) count * ENTRY + Integer.BYTES || !checksumMatches(buffer, (int) size)) {
+                log.warn("ignoring corrupt snapshot {}", path);
+                return Optional.empty();
+            }
+            buffer.position(HEADER);
+            Map<Long, long[]> accounts = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                accounts.put(buffer.getLong(), new long[]{buffer.getLong(), buffer.getLong()});
+            }
+            return Optional.of(new BalanceSnapshot(sequence, accounts));
+        } catch (IOException e) {
+            log.warn("cannot read snapshot {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    private static boolean checksumMatches(ByteBuffer buffer, int size) {
+        CRC32 crc = new CRC32();
+        buffer.position(0).limit(size - Integer.BYTES);
+        crc.update(buffer);
+        buffer.limit(size);
+        return buffer.getInt() == (int) crc.getValue();
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32 crc) {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        try {
+            write(channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void prune() {
+        List<Path> snapshots = snapshots();
+        for (Path path : snapshots.subList(0, Math.max(0, snapshots.size() - retain))) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("cannot delete old snapshot {}", path, e);
+            }
+        }
+    }
+
+    private List<Path> snapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot list snapshot directory " + directory, e);
+        }
+    }
+}
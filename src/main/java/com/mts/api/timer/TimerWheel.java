@@ -0,0 +1,122 @@
+package com.mts.api.timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel: runs tasks once their delay has passed, at tick resolution, on a single
+ * daemon thread.
+ * <p>
+ * Scheduling is a lock-free enqueue. Once per tick the wheel thread moves new tasks into the bucket
+ * of the tick they are due in and runs the due tasks of the current bucket, so the cost per tick is
+ * proportional to what is due rather than to everything scheduled. Delays longer than one turn of
+ * the wheel wait out the extra turns in their bucket. Tasks cannot be cancelled; a task that may no
+ * longer be wanted checks that itself when it runs.
+ */
+@Slf4j
+public class TimerWheel {
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] buckets;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final long startNanos;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(String name, Duration tick, int wheelSize) {
+        this.tickNanos = Math.max(1, tick.toNanos());
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs {@code task} on the wheel thread no earlier than {@code delay} from now, and at most one
+     * tick later unless the wheel is behind. Tasks must be short; a slow task delays every other.
+     */
+    public void schedule(Duration delay, Runnable task) {
+        scheduled.add(new Timeout(System.nanoTime() + Math.max(0, delay.toNanos()), task));
+    }
+
+    /**
+     * Stops the wheel thread; tasks not yet run are dropped.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long tickEnd = startNanos + (tick + 1) * tickNanos;
+            for (long wait = tickEnd - System.nanoTime(); wait > 0 && running; wait = tickEnd - System.nanoTime()) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (!running) {
+                return;
+            }
+            transferScheduled();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    /**
+     * Places each new timeout in the bucket of the tick it falls in, or the current one if that tick
+     * has already passed, with the number of full turns it has to wait there.
+     */
+    private void transferScheduled() {
+        for (Timeout timeout = scheduled.poll(); timeout != null; timeout = scheduled.poll()) {
+            long due = Math.max(tick, (timeout.deadline - startNanos) / tickNanos);
+            timeout.rounds = (due - tick) >> Integer.numberOfTrailingZeros(buckets.length);
+            buckets[(int) (due & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        for (Iterator<Timeout> it = bucket.iterator(); it.hasNext(); ) {
+            Timeout timeout = it.next();
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                continue;
+            }
+            it.remove();
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                log.error("timer task failed", e);
+            }
+        }
+    }
+
+    private static final class Timeout {
+        private final long deadline;
+        private final Runnable task;
+        private long rounds;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.mts.api.validation;
+
+import com.mts.api.domain.Money;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.constraints.Positive;
+
+/**
+ * Lets {@link Positive} be used on {@link Money}. Registered through
+ * {@code META-INF/services/javax.validation.ConstraintValidator}.
+ */
+public class PositiveMoneyValidator implements ConstraintValidator<Positive, Money> {
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        return value == null || value.isPositive();
+    }
+}
@@ -0,0 +1,81 @@
+package com.mts.api.wire;
+
+import com.mts.api.wire.WireProtocol.Response;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking client of the binary protocol, for one thread. {@link #send} buffers requests, which go out
+ * on {@link #flush} or when the buffer fills; {@link #receive} returns the responses in request order.
+ * A pipelining caller should receive before it has far more requests outstanding than the server's
+ * {@code mts.wire.max-pipelined}, since the server stops reading beyond that.
+ */
+public class WireClient implements Closeable {
+    private static final int BUFFERED_FRAMES = 64;
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(WireProtocol.REQUEST_SIZE * BUFFERED_FRAMES);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(WireProtocol.RESPONSE_SIZE * BUFFERED_FRAMES);
+    private long nextCorrelationId;
+
+    public WireClient(InetSocketAddress address) throws IOException {
+        channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        in.flip();
+    }
+
+    /**
+     * @return the correlation id of the request
+     */
+    public long send(WireOperation operation, long accountId, long toAccountId, long amount) throws IOException {
+        if (out.remaining() < WireProtocol.REQUEST_SIZE) {
+            flush();
+        }
+        long correlationId = nextCorrelationId++;
+        WireProtocol.writeRequest(out, correlationId, operation, accountId, toAccountId, amount);
+        return correlationId;
+    }
+
+    public void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Flushes any buffered requests, then blocks for the next response.
+     */
+    public Response receive() throws IOException {
+        if (out.position() > 0) {
+            flush();
+        }
+        if (in.remaining() < WireProtocol.RESPONSE_SIZE) {
+            in.compact();
+            while (in.position() < WireProtocol.RESPONSE_SIZE) {
+                if (channel.read(in) < 0) {
+                    throw new EOFException("connection closed by the server");
+                }
+            }
+            in.flip();
+        }
+        return Response.read(in);
+    }
+
+    public Response call(WireOperation operation, long accountId, long toAccountId, long amount) throws IOException {
+        send(operation, accountId, toAccountId, amount);
+        return receive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
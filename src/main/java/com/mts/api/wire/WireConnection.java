@@ -0,0 +1,168 @@
+package com.mts.api.wire;
+
+import com.mts.api.wire.WireProtocol.Request;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One client connection of a {@link WireServer}.
+ * <p>
+ * The selector thread reads and decodes request frames and queues them; a single worker task at a
+ * time drains the queue, so requests of one connection run in order. Responses collect in the output
+ * buffer and are written once per drained batch, by the worker, or by the selector thread when the
+ * socket is not writable at that moment.
+ * <p>
+ * At most {@code maxPipelined} requests are admitted without their response having been written;
+ * beyond that the connection stops reading until the client catches up. This bounds the request
+ * queue, and it is why the output buffer, sized for {@code maxPipelined} responses, never overflows.
+ */
+final class WireConnection {
+    private final WireServer server;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final int maxPipelined;
+    private final ByteBuffer in;
+    private final ByteBuffer out;
+    private final ReentrantLock outLock = new ReentrantLock();
+    private final Queue<Request> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private long bytesWritten;
+    private long responsesWritten;
+
+    WireConnection(WireServer server, SocketChannel channel, SelectionKey key, int maxPipelined) {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+        this.maxPipelined = maxPipelined;
+        this.in = ByteBuffer.allocateDirect(WireProtocol.REQUEST_SIZE * Math.min(maxPipelined, 64));
+        this.out = ByteBuffer.allocateDirect(WireProtocol.RESPONSE_SIZE * maxPipelined);
+    }
+
+    /**
+     * Selector thread: reads what is available and admits the complete frames.
+     */
+    void read() throws IOException {
+        if (channel.read(in) < 0) {
+            close();
+            return;
+        }
+        admit();
+    }
+
+    /**
+     * Selector thread: queues the buffered frames there is room for, then sets the interest ops to match.
+     */
+    void admit() {
+        if (!key.isValid()) {
+            return;
+        }
+        in.flip();
+        boolean admittedAny = false;
+        while (in.remaining() >= WireProtocol.REQUEST_SIZE && admitted.get() < maxPipelined) {
+            pending.add(Request.read(in));
+            admitted.incrementAndGet();
+            admittedAny = true;
+        }
+        in.compact();
+        if (admittedAny && draining.compareAndSet(false, true)) {
+            server.execute(this::drain);
+        }
+        updateInterest();
+    }
+
+    /**
+     * Selector thread: reads while there is room for more requests, waits for writability while
+     * responses are left unwritten.
+     */
+    void updateInterest() {
+        if (!key.isValid()) {
+            return;
+        }
+        int ops = admitted.get() < maxPipelined ? SelectionKey.OP_READ : 0;
+        outLock.lock();
+        try {
+            if (out.position() > 0) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+        } finally {
+            outLock.unlock();
+        }
+        key.interestOps(ops);
+    }
+
+    /**
+     * Writes as much of the buffered responses as the socket takes. If some are left, or the write
+     * made room for a connection that had stopped reading, the selector thread is asked to update
+     * the interest ops.
+     */
+    void flush() {
+        int freed;
+        boolean unwritten;
+        outLock.lock();
+        try {
+            out.flip();
+            try {
+                bytesWritten += channel.write(out);
+            } catch (IOException e) {
+                close();
+                return;
+            } finally {
+                out.compact();
+            }
+            unwritten = out.position() > 0;
+            long responses = bytesWritten / WireProtocol.RESPONSE_SIZE;
+            freed = (int) (responses - responsesWritten);
+            responsesWritten = responses;
+        } finally {
+            outLock.unlock();
+        }
+        int before = admitted.getAndAdd(-freed);
+        if (unwritten || (freed > 0 && before >= maxPipelined)) {
+            server.update(this);
+        }
+    }
+
+    void close() {
+        key.cancel();
+        pending.clear();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the connection is gone either way
+        }
+    }
+
+    /**
+     * Worker: executes the queued requests in order and writes their responses as one batch.
+     */
+    private void drain() {
+        for (; ; ) {
+            for (Request request = pending.poll(); request != null; request = pending.poll()) {
+                server.handle(request, this);
+            }
+            flush();
+            draining.set(false);
+            if (pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    void respond(long correlationId, int status, int reason, long balance, long held) {
+        outLock.lock();
+        try {
+            WireProtocol.writeResponse(out, correlationId, status, reason, balance, held);
+        } finally {
+            outLock.unlock();
+        }
+    }
+}
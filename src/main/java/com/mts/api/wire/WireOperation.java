@@ -0,0 +1,42 @@
+package com.mts.api.wire;
+
+/**
+ * Operations of the binary protocol, each with a fixed code on the wire.
+ */
+public enum WireOperation {
+    /**
+     * Moves {@code amount} from {@code accountId} to {@code toAccountId}; the response carries no balance.
+     */
+    TRANSFER(0),
+    DEPOSIT(1),
+    WITHDRAW(2),
+    /**
+     * Reads the balances of {@code accountId}; {@code amount} is ignored.
+     */
+    BALANCE(3);
+
+    private static final WireOperation[] BY_CODE = new WireOperation[4];
+
+    static {
+        for (WireOperation operation : values()) {
+            BY_CODE[operation.code] = operation;
+        }
+    }
+
+    private final int code;
+
+    WireOperation(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    /**
+     * @return the operation, or {@code null} for an unknown code
+     */
+    static WireOperation of(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mts.api.wire;
+
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frame layout of the binary account protocol. Every frame has a fixed size and all fields are
+ * big-endian; amounts and balances are in minor units, as {@link com.mts.api.domain.Money#units()}.
+ * <pre>
+ * request, {@value #REQUEST_SIZE} bytes          response, {@value #RESPONSE_SIZE} bytes
+ *  0  long  correlation id                   0  long  correlation id of the request
+ *  8  int   operation ({@link WireOperation})       8  short status, as the REST endpoint would answer
+ * 12  int   reserved, zero                  10  short reason ({@link com.mts.api.exceptions.ApiErrorCode#code()}), 0 with status 200
+ * 16  long  account id                      12  int   reserved, zero
+ * 24  long  to-account id (transfers)       16  long  balance
+ * 32  long  amount                          24  long  held
+ * </pre>
+ * A client may write any number of requests without waiting; each connection executes them in order
+ * and answers in the same order.
+ */
+public final class WireProtocol {
+    public static final int REQUEST_SIZE = 40;
+    public static final int RESPONSE_SIZE = 32;
+    public static final int STATUS_OK = 200;
+
+    private WireProtocol() {
+    }
+
+    public static void writeRequest(ByteBuffer buffer, long correlationId, WireOperation operation, long accountId,
+                                    long toAccountId, long amount) {
+        buffer.putLong(correlationId)
+                .putInt(operation.code())
+                .putInt(0)
+                .putLong(accountId)
+                .putLong(toAccountId)
+                .putLong(amount);
+    }
+
+    static void writeResponse(ByteBuffer buffer, long correlationId, int status, int reason, long balance, long held) {
+        buffer.putLong(correlationId)
+                .putShort((short) status)
+                .putShort((short) reason)
+                .putInt(0)
+                .putLong(balance)
+                .putLong(held);
+    }
+
+    /**
+     * A decoded request frame; the operation is kept as its code, which may be unknown.
+     */
+    @Value
+    static class Request {
+        long correlationId;
+        int operation;
+        long accountId;
+        long toAccountId;
+        long amount;
+
+        static Request read(ByteBuffer buffer) {
+            long correlationId = buffer.getLong();
+            int operation = buffer.getInt();
+            buffer.getInt();
+            return new Request(correlationId, operation, buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    /**
+     * A decoded response frame.
+     */
+    @Value
+    public static class Response {
+        long correlationId;
+        int status;
+        int reason;
+        long balance;
+        long held;
+
+        public static Response read(ByteBuffer buffer) {
+            long correlationId = buffer.getLong();
+            int status = buffer.getShort();
+            int reason = buffer.getShort();
+            buffer.getInt();
+            return new Response(correlationId, status, reason, buffer.getLong(), buffer.getLong());
+        }
+
+        public boolean isOk() {
+            return status == STATUS_OK;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.mts.api.wire;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.ApiErrorCode;
+import com.mts.api.service.AccountManagementService;
+import com.mts.api.wire.WireProtocol.Request;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TCP listener for the fixed-frame protocol of {@link WireProtocol}, dispatching straight to
+ * {@link AccountManagementService}, next to the REST API.
+ * <p>
+ * One selector thread accepts connections, reads and decodes frames; requests run on a fixed pool of
+ * workers, since the account engines may block on the database. Requests of one connection run one
+ * after the other, so a client wanting parallelism opens several connections. Business failures are
+ * answered with the status and reason the REST endpoint would give; requests carry no idempotency
+ * key, so a client that loses a connection cannot tell whether its unanswered requests ran.
+ */
+@Slf4j
+public class WireServer {
+    private final AccountManagementService accountManagementService;
+    private final int maxPipelined;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService workers;
+    private final Queue<WireConnection> updates = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public WireServer(AccountManagementService accountManagementService, InetSocketAddress address, int threads,
+                      int maxPipelined) throws IOException {
+        this.accountManagementService = accountManagementService;
+        this.maxPipelined = maxPipelined;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("wire-worker-"));
+        this.thread = new Thread(this::run, "wire-selector");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("binary protocol listening on port {}", getPort());
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stops accepting and reading, lets the workers finish the requests already admitted, then closes
+     * every connection.
+     */
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+            workers.shutdown();
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof WireConnection) {
+                ((WireConnection) key.attachment()).close();
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            log.warn("cannot close the binary protocol listener", e);
+        }
+    }
+
+    void execute(Runnable task) {
+        workers.execute(task);
+    }
+
+    /**
+     * Asks the selector thread to resume reading or wait for writability on {@code connection}.
+     */
+    void update(WireConnection connection) {
+        updates.add(connection);
+        selector.wakeup();
+    }
+
+    void handle(Request request, WireConnection connection) {
+        WireOperation operation = WireOperation.of(request.getOperation());
+        if (operation == null) {
+            connection.respond(request.getCorrelationId(), HttpStatus.BAD_REQUEST.value(),
+                    ApiErrorCode.BAD_REQUEST.code(), 0, 0);
+            return;
+        }
+        if (operation != WireOperation.BALANCE && request.getAmount() <= 0) {
+            connection.respond(request.getCorrelationId(), HttpStatus.BAD_REQUEST.value(),
+                    ApiErrorCode.VALIDATION_ERROR.code(), 0, 0);
+            return;
+        }
+        try {
+            AccountBalance balance = execute(operation, request);
+            connection.respond(request.getCorrelationId(), WireProtocol.STATUS_OK, 0,
+                    balance == null ? 0 : balance.getBalance().units(), balance == null ? 0 : balance.getHeld().units());
+        } catch (ApiError e) {
+            connection.respond(request.getCorrelationId(), e.httpStatus().value(), e.reason().code(), 0, 0);
+        } catch (RuntimeException e) {
+            log.error("binary protocol request {} failed", request, e);
+            connection.respond(request.getCorrelationId(), HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    ApiErrorCode.GENERAL_EXCEPTION.code(), 0, 0);
+        }
+    }
+
+    private AccountBalance execute(WireOperation operation, Request request) {
+        Money amount = Money.ofUnits(request.getAmount());
+        switch (operation) {
+            case TRANSFER:
+                accountManagementService.transferMoney(amount, request.getAccountId(), request.getToAccountId());
+                return null;
+            case DEPOSIT:
+                return balance(accountManagementService.depositMoney(amount, request.getAccountId()));
+            case WITHDRAW:
+                return balance(accountManagementService.withdrawMoney(amount, request.getAccountId()));
+            case BALANCE:
+                return accountManagementService.getBalance(request.getAccountId());
+            default:
+                throw new IllegalStateException("unhandled operation " + operation);
+        }
+    }
+
+    private static AccountBalance balance(Account account) {
+        return account == null ? null : AccountBalance.of(account);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                for (WireConnection connection = updates.poll(); connection != null; connection = updates.poll()) {
+                    try {
+                        connection.admit();
+                    } catch (CancelledKeyException e) {
+                        connection.close();
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            ready(key);
+                        }
+                    } catch (CancelledKeyException e) {
+                        // a worker closed the connection, cancelling its key, after the validity check
+                        ((WireConnection) key.attachment()).close();
+                    }
+                }
+            } catch (IOException e) {
+                log.error("binary protocol selector failed", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new WireConnection(this, channel, key, maxPipelined));
+    }
+
+    private void ready(SelectionKey key) {
+        WireConnection connection = (WireConnection) key.attachment();
+        try {
+            if (key.isWritable()) {
+                connection.flush();
+                connection.updateInterest();
+            }
+            if (key.isValid() && key.isReadable()) {
+                connection.read();
+            }
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.mts.api;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:mts;DB_CLOSE_DELAY=-1")
 class MtsApplicationTests {
 
 	@Test
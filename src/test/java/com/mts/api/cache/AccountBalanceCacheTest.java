@@ -0,0 +1,75 @@
+package com.mts.api.cache;
+
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link AccountBalanceCache}
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountBalanceCacheTest {
+    private static final Long ACCOUNT_ID = 10L;
+
+    @Mock
+    private AccountRepository accountRepository;
+    private AccountBalanceCache accountBalanceCache;
+
+    @BeforeEach
+    void init() {
+        accountBalanceCache = new AccountBalanceCache(accountRepository, new AccountProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("get - a balance is loaded once and then served from the cache")
+    void testGetLoadsOnce() {
+        when(accountRepository.findBalanceById(ACCOUNT_ID))
+                .thenReturn(Optional.of(new AccountBalance(ACCOUNT_ID, Money.valueOf("10"), Money.ZERO, 0L)));
+
+        assertEquals(Money.valueOf("10"), accountBalanceCache.get(ACCOUNT_ID).getBalance());
+        assertEquals(Money.valueOf("10"), accountBalanceCache.get(ACCOUNT_ID).getBalance());
+
+        verify(accountRepository, times(1)).findBalanceById(ACCOUNT_ID);
+        assertEquals(1, accountBalanceCache.stats().hitCount());
+        assertEquals(1, accountBalanceCache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("get - on unknown account throws AccountDoesNotExist")
+    void testGetUnknownAccount() {
+        when(accountRepository.findBalanceById(ACCOUNT_ID)).thenReturn(Optional.empty());
+
+        assertThrows(AccountDoesNotExist.class, () -> accountBalanceCache.get(ACCOUNT_ID));
+    }
+
+    @Test
+    @DisplayName("update - an older version never replaces a newer cached balance")
+    void testUpdateKeepsNewestVersion() {
+        accountBalanceCache.update(account(Money.valueOf("5"), 3L));
+        accountBalanceCache.update(account(Money.valueOf("7"), 2L));
+        assertEquals(Money.valueOf("5"), accountBalanceCache.get(ACCOUNT_ID).getBalance());
+
+        accountBalanceCache.update(account(Money.valueOf("9"), 4L));
+        assertEquals(Money.valueOf("9"), accountBalanceCache.get(ACCOUNT_ID).getBalance());
+        verifyNoInteractions(accountRepository);
+    }
+
+    private Account account(Money balance, Long version) {
+        return Account.builder().accountId(ACCOUNT_ID).balance(balance).version(version).build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.mts.api.commit;
+
+import com.mts.api.domain.Money;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link GroupCommitWriter}
+ */
+@ExtendWith(MockitoExtension.class)
+class GroupCommitWriterTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GroupCommitWriter writer;
+
+    @BeforeEach
+    void init() {
+        writer = new GroupCommitWriter(new TransactionTemplate(transactionManager), 1024, 64, Duration.ofMillis(20));
+        writer.start();
+    }
+
+    @AfterEach
+    void shutdown() {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("submit - concurrent mutations share transactions and a failing one only fails itself")
+    void testConcurrentMutationsAreGroupedIntoFewTransactions() throws Exception {
+        int callers = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            int value = i;
+            results.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return writer.submit(() -> {
+                    if (value == 0) {
+                        throw new InsufficientBalance(Money.valueOf("1"));
+                    }
+                    return value;
+                });
+            }, executor));
+        }
+        start.countDown();
+
+        for (int i = 1; i < callers; i++) {
+            assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS).intValue());
+        }
+        CompletableFuture<Integer> failed = results.get(0);
+        Exception thrown = assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof InsufficientBalance);
+        executor.shutdown();
+
+        verify(transactionManager, atMost(callers / 2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("submit - rejected when the writer is not running")
+    void testSubmitWhenStoppedCheckError() {
+        GroupCommitWriter stopped = new GroupCommitWriter(new TransactionTemplate(transactionManager), 1, 1, Duration.ZERO);
+        assertThrows(IllegalStateException.class, () -> stopped.submit(() -> 1));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
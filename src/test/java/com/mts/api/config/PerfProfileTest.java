@@ -0,0 +1,62 @@
+package com.mts.api.config;
+
+import com.mts.api.domain.Account;
+import com.mts.api.service.AccountManagementService;
+import com.mts.api.service.AccountQueryService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@code perf} profile and {@link PerfDataSourceConfig}
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:perf;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("perf")
+class PerfProfileTest {
+    @Autowired
+    private AccountManagementService accountManagementService;
+    @Autowired
+    private AccountQueryService accountQueryService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("perf - the pool is fixed at cores * 2 + 1 connections")
+    void testPoolIsSizedFromCores() throws SQLException {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        int expected = PerfDataSourceConfig.poolSize(Runtime.getRuntime().availableProcessors());
+        assertEquals(expected, hikari.getMaximumPoolSize());
+        assertEquals(expected, hikari.getMinimumIdle());
+        assertFalse(hikari.isAutoCommit());
+    }
+
+    @Test
+    @DisplayName("perf - account details read the user from the second-level cache")
+    void testUserIsServedFromSecondLevelCache() {
+        Account account = accountManagementService.createAccount("cached@mail.com", "cached");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        accountQueryService.details(account.getAccountId());
+        statistics.clear();
+
+        assertEquals("cached@mail.com", accountQueryService.details(account.getAccountId()).getEmail());
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,100 @@
+package com.mts.api.config;
+
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.journal.JournalRecord;
+import com.mts.api.journal.RecordType;
+import com.mts.api.journal.RecoveryMode;
+import com.mts.api.journal.TransactionJournal;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.snapshot.BalanceSnapshotter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link SnapshotConfig}
+ */
+@ExtendWith(MockitoExtension.class)
+class SnapshotConfigTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private ObjectProvider<BalanceSnapshotter> balanceSnapshotter;
+
+    private final JournalProperties journalProperties = new JournalProperties();
+    private TransactionJournal transactionJournal;
+
+    @BeforeEach
+    void init() {
+        // account 1 predates the journal, which only saw a deposit to it
+        List<JournalRecord> records = Arrays.asList(
+                new JournalRecord(1, 0, RecordType.DEPOSIT, 1, 0, 500),
+                new JournalRecord(2, 0, RecordType.CREATE, 2, 0, 0),
+                new JournalRecord(3, 0, RecordType.TRANSFER, 1, 2, 200));
+        transactionJournal = new TransactionJournal() {
+            @Override
+            public long append(RecordType type, long accountId, long counterparty, long amount) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void replay(Consumer<JournalRecord> consumer) {
+                records.forEach(consumer);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("recoverBalances - refuses to start when journal and database disagree")
+    void testRecoverRefusesDisagreement() {
+        when(accountRepository.findAllBalances()).thenReturn(Arrays.asList(
+                new AccountBalance(1L, Money.ofUnits(10_300), Money.ZERO, 3L),
+                new AccountBalance(2L, Money.ofUnits(200), Money.ZERO, 1L)));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, this::recover);
+        assertTrue(e.getMessage().contains("disagree on 1 accounts"));
+    }
+
+    @Test
+    @DisplayName("recoverBalances - uses the journal when it agrees with the database")
+    void testRecoverAgreement() {
+        when(accountRepository.findAllBalances()).thenReturn(Arrays.asList(
+                new AccountBalance(1L, Money.ofUnits(300), Money.ZERO, 3L),
+                new AccountBalance(2L, Money.ofUnits(200), Money.ZERO, 1L),
+                new AccountBalance(3L, Money.ofUnits(999), Money.ZERO, 1L)));
+
+        Map<Long, Long> balances = recover();
+
+        assertEquals(Long.valueOf(300), balances.get(1L));
+        assertEquals(Long.valueOf(200), balances.get(2L));
+        assertFalse(balances.containsKey(3L));
+    }
+
+    @Test
+    @DisplayName("recoverBalances - a chosen source is used without comparing")
+    void testRecoverChosenSource() {
+        journalProperties.setRecovery(RecoveryMode.DATABASE);
+        assertTrue(recover().isEmpty());
+
+        journalProperties.setRecovery(RecoveryMode.JOURNAL);
+        assertEquals(Long.valueOf(300), recover().get(1L));
+        verify(accountRepository, never()).findAllBalances();
+    }
+
+    private Map<Long, Long> recover() {
+        return SnapshotConfig.recoverBalances(journalProperties, accountRepository, transactionJournal, balanceSnapshotter);
+    }
+}
@@ -1,25 +1,23 @@
 package com.mts.api.controller;
 
 import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
 import com.mts.api.domain.User;
 import com.mts.api.exceptions.impl.AccountDoesNotExist;
 import com.mts.api.exceptions.impl.InsufficientBalance;
 import com.mts.api.service.AccountManagementService;
-import org.junit.Test;
-import org.junit.runner.RunWith;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
-
-import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
@@ -31,25 +29,27 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 /**
  * Tests for {@link AccountController}
  */
-@RunWith(SpringRunner.class)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:mts;DB_CLOSE_DELAY=-1")
 @AutoConfigureMockMvc
-public class AccountControllerTest {
+class AccountControllerTest {
 
     private static final String USER_EMAIL = "test@mail.com";
     private static final String USERNAME = "testUser";
-    private static final BigDecimal ACCOUNT_BALANCE = BigDecimal.TEN;
+    private static final Money ACCOUNT_BALANCE = Money.valueOf("10");
     private static final Long ACCOUNT_ID = 10L;
+    private static final String BALANCE_RESPONSE = "{\"accountId\":10,\"balance\":10.00,\"held\":0.00,\"available\":10.00}";
 
     @MockBean
     private AccountManagementService accountManagementService;
     @Autowired
     private MockMvc mockMvc;
     @Captor
-    private ArgumentCaptor<BigDecimal> amountCaptor;
+    private ArgumentCaptor<Money> amountCaptor;
 
     @Test
-    public void testCreateAccountCheckExpectedResponse() throws Exception {
+    @DisplayName("createAccount - returns the new account without its user")
+    void testCreateAccountCheckExpectedResponse() throws Exception {
         when(accountManagementService.createAccount(anyString(), anyString()))
                 .thenReturn(createAccount());
 
@@ -59,15 +59,16 @@ public class AccountControllerTest {
                 .param("username", USERNAME)
                 .accept(APPLICATION_JSON))
                 .andDo(print())
-                .andExpect(jsonPath("$.userId.username").value(USERNAME))
+                .andExpect(jsonPath("$.userId").doesNotExist())
                 .andExpect(jsonPath("$.accountId").value(ACCOUNT_ID))
-                .andExpect(jsonPath("$.balance").value(ACCOUNT_BALANCE))
+                .andExpect(jsonPath("$.balance").value(ACCOUNT_BALANCE.toBigDecimal().doubleValue()))
                 .andExpect(status().isOk());
     }
 
     @Test
-    public void testWithdrawMoneyWithInsufficientBalanceCheckErrorStatus() throws Exception {
-        BigDecimal amount = new BigDecimal(200);
+    @DisplayName("withdrawAccount - an insufficient balance answers 404 with the amount")
+    void testWithdrawMoneyWithInsufficientBalanceCheckErrorStatus() throws Exception {
+        Money amount = Money.valueOf("200");
         when(accountManagementService.withdrawMoney(eq(amount), eq(ACCOUNT_ID)))
                 .thenThrow(new InsufficientBalance(amount));
 
@@ -78,14 +79,15 @@ public class AccountControllerTest {
                 .accept(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
-                .andExpect(content().string("{\"error\":{\"status\":404,\"reason\":\"ACCOUNT_LIST_LIMIT_REACHED\",\"message\":\"There isn't enough balance: 200\"}}"));
+                .andExpect(content().string("{\"error\":{\"status\":404,\"reason\":\"ACCOUNT_LIST_LIMIT_REACHED\",\"message\":\"There isn't enough balance: 200.00\"}}"));
         //verify
         verify(accountManagementService, times(1)).withdrawMoney(eq(amount), eq(ACCOUNT_ID));
     }
 
     @Test
-    public void testWithdrawMoneyWithValidBalanceMustReturnOk() throws Exception {
-        BigDecimal amount = BigDecimal.TEN;
+    @DisplayName("withdrawAccount - a covered withdrawal answers 200 with the balances")
+    void testWithdrawMoneyWithValidBalanceMustReturnOk() throws Exception {
+        Money amount = Money.valueOf("10");
         when(accountManagementService.withdrawMoney(any(), any()))
                 .thenReturn(createAccount());
 
@@ -95,14 +97,16 @@ public class AccountControllerTest {
                 .param("accountId", ACCOUNT_ID.toString())
                 .accept(APPLICATION_JSON))
                 .andDo(print())
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().json(BALANCE_RESPONSE, true));
         //verify if service called
         verify(accountManagementService, times(1)).withdrawMoney(eq(amount), eq(ACCOUNT_ID));
     }
 
     @Test
-    public void testDepositMoneyOnValidAccountCheckStatusIsOk() throws Exception {
-        BigDecimal deposit = new BigDecimal(20);
+    @DisplayName("depositAccount - a deposit to an existing account answers 200 with the balances")
+    void testDepositMoneyOnValidAccountCheckStatusIsOk() throws Exception {
+        Money deposit = Money.valueOf("20");
         Account account = createAccount();
         when(accountManagementService.depositMoney(amountCaptor.capture(), eq(ACCOUNT_ID)))
                 .thenReturn(account);
@@ -113,13 +117,15 @@ public class AccountControllerTest {
                 .param("accountId", ACCOUNT_ID.toString())
                 .accept(APPLICATION_JSON))
                 .andDo(print())
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().json(BALANCE_RESPONSE, true));
         assertEquals(deposit, amountCaptor.getValue());
     }
 
     @Test
-    public void testDepositMoneyOnInvalidAccountIdCheckErrorStatus() throws Exception {
-        BigDecimal amount = BigDecimal.ZERO;
+    @DisplayName("depositAccount - an unknown account answers 404")
+    void testDepositMoneyOnInvalidAccountIdCheckErrorStatus() throws Exception {
+        Money amount = Money.valueOf("1");
         when(accountManagementService.depositMoney(eq(amount), eq(ACCOUNT_ID)))
                 .thenThrow(new AccountDoesNotExist(ACCOUNT_ID));
 
@@ -137,22 +143,41 @@ public class AccountControllerTest {
     }
 
     @Test
-    public void testTransferMoneyOnInsufficientBalanceCheckErrorStatus() throws Exception {
+    @DisplayName("depositAccount, withdrawAccount - zero and negative amounts answer 400 without reaching the service")
+    void testNonPositiveAmountCheckErrorStatus() throws Exception {
+        for (String path : new String[]{"/account/deposit", "/account/withdraw"}) {
+            for (String amount : new String[]{"0", "-5"}) {
+                this.mockMvc.perform(put(path)
+                        .contentType(APPLICATION_JSON)
+                        .param("amount", amount)
+                        .param("accountId", ACCOUNT_ID.toString())
+                        .accept(APPLICATION_JSON))
+                        .andDo(print())
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.error.reason").value("VALIDATION_ERROR"));
+            }
+        }
+        verifyNoInteractions(accountManagementService);
+    }
+
+    @Test
+    @DisplayName("transferMoney - an insufficient balance answers 404 with the amount")
+    void testTransferMoneyOnInsufficientBalanceCheckErrorStatus() throws Exception {
         long fromAccountId = 1L;
         long toAccountId = 2L;
 
         doThrow(new InsufficientBalance(ACCOUNT_BALANCE))
-                .when(accountManagementService).transferMoney(eq(BigDecimal.TEN), eq(fromAccountId), eq(toAccountId));
+                .when(accountManagementService).transferMoney(eq(Money.valueOf("10")), eq(fromAccountId), eq(toAccountId));
 
         this.mockMvc.perform(post("/account/transfer")
                 .contentType(APPLICATION_JSON)
-                .param("amount", BigDecimal.TEN.toString())
+                .param("amount", Money.valueOf("10").toString())
                 .param("fromAccount", Long.toString(fromAccountId))
                 .param("toAccount", Long.toString(toAccountId))
                 .accept(APPLICATION_JSON))
                 .andDo(print())
                 .andExpect(status().isNotFound())
-                .andExpect(content().string("{\"error\":{\"status\":404,\"reason\":\"ACCOUNT_LIST_LIMIT_REACHED\",\"message\":\"There isn't enough balance: 10\"}}"));
+                .andExpect(content().string("{\"error\":{\"status\":404,\"reason\":\"ACCOUNT_LIST_LIMIT_REACHED\",\"message\":\"There isn't enough balance: 10.00\"}}"));
     }
 
     private Account createAccount() {
@@ -0,0 +1,63 @@
+package com.mts.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.config.IdempotencyProperties;
+import com.mts.api.domain.IdempotencyRecord;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.Hold;
+import com.mts.api.idempotency.IdempotencyCache;
+import com.mts.api.repository.IdempotencyRecordRepository;
+import com.mts.api.service.HoldService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link HoldController}
+ */
+@ExtendWith(MockitoExtension.class)
+class HoldControllerTest {
+    private static final String KEY = "5b1d0c2e";
+    private static final Long ACCOUNT_ID = 10L;
+    private static final Money AMOUNT = Money.valueOf("12.50");
+
+    @Mock
+    private HoldService holdService;
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Test
+    @DisplayName("placeHold - a persisted hold is replayed after a restart without placing it again")
+    void testPersistentHoldIsReplayed() {
+        Hold hold = new Hold("7c4e", ACCOUNT_ID, AMOUNT, 1_700_000_000_000L);
+        when(holdService.place(ACCOUNT_ID, AMOUNT, Duration.ofMinutes(5))).thenReturn(hold);
+
+        assertEquals(hold, controller().placeHold(ACCOUNT_ID, AMOUNT, Duration.ofMinutes(5), KEY));
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository, times(2)).save(saved.capture());
+        when(idempotencyRecordRepository.findById(eq(KEY))).thenReturn(Optional.of(saved.getValue()));
+
+        assertEquals(hold, controller().placeHold(ACCOUNT_ID, AMOUNT, Duration.ofMinutes(5), KEY));
+        verify(holdService, times(1)).place(ACCOUNT_ID, AMOUNT, Duration.ofMinutes(5));
+    }
+
+    /**
+     * A controller with a fresh persistent idempotency cache, as after a restart.
+     */
+    private HoldController controller() {
+        IdempotencyProperties idempotencyProperties = new IdempotencyProperties();
+        idempotencyProperties.setPersistent(true);
+        return new HoldController(holdService,
+                new IdempotencyCache(idempotencyRecordRepository, new ObjectMapper(), idempotencyProperties));
+    }
+}
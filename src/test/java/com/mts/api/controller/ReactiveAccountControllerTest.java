@@ -0,0 +1,41 @@
+package com.mts.api.controller;
+
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.service.ReactiveAccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ReactiveAccountController}
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveAccountControllerTest {
+    private static final Long ACCOUNT_ID = 10L;
+    private static final Money AMOUNT = Money.valueOf("12.50");
+
+    @Mock
+    private ReactiveAccountService reactiveAccountService;
+    @InjectMocks
+    private ReactiveAccountController reactiveAccountController;
+
+    @Test
+    @DisplayName("withdrawAccount / depositAccount - respond with the balance after the movement")
+    void testMovementsReturnBalance() {
+        AccountBalance afterWithdraw = new AccountBalance(ACCOUNT_ID, Money.valueOf("87.50"), Money.ZERO, 1L);
+        AccountBalance afterDeposit = new AccountBalance(ACCOUNT_ID, Money.valueOf("100"), Money.ZERO, 2L);
+        when(reactiveAccountService.withdrawMoney(AMOUNT, ACCOUNT_ID, null)).thenReturn(Mono.just(afterWithdraw));
+        when(reactiveAccountService.depositMoney(AMOUNT, ACCOUNT_ID, null)).thenReturn(Mono.just(afterDeposit));
+
+        assertEquals(afterWithdraw, reactiveAccountController.withdrawAccount(AMOUNT, ACCOUNT_ID, null).block());
+        assertEquals(afterDeposit, reactiveAccountController.depositAccount(AMOUNT, ACCOUNT_ID, null).block());
+    }
+}
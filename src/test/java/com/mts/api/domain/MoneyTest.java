@@ -0,0 +1,45 @@
+package com.mts.api.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Money}
+ */
+class MoneyTest {
+
+    @Test
+    @DisplayName("valueOf - parses plain decimals into minor units")
+    void testValueOfParsesDecimals() {
+        assertEquals(1200, Money.valueOf("12").units());
+        assertEquals(1250, Money.valueOf("12.5").units());
+        assertEquals(-5, Money.valueOf("-0.05").units());
+        assertEquals(50, Money.valueOf(".5").units());
+        assertEquals(Money.of(new BigDecimal("1234.56")), Money.valueOf("1234.56"));
+    }
+
+    @Test
+    @DisplayName("valueOf - rejects malformed amounts and more than two fraction digits")
+    void testValueOfRejectsInvalid() {
+        assertThrows(NumberFormatException.class, () -> Money.valueOf("0.001"));
+        assertThrows(NumberFormatException.class, () -> Money.valueOf("1e3"));
+        assertThrows(NumberFormatException.class, () -> Money.valueOf("-"));
+        assertThrows(NumberFormatException.class, () -> Money.valueOf(""));
+        assertThrows(NumberFormatException.class, () -> Money.valueOf("99999999999999999999"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    @DisplayName("json - written and read as a decimal number")
+    void testJsonRoundTrip() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals("10.05", objectMapper.writeValueAsString(Money.ofUnits(1005)));
+        assertEquals(Money.ofUnits(-1005), objectMapper.readValue("-10.05", Money.class));
+        assertEquals("-0.07", Money.ofUnits(-7).toString());
+    }
+}
@@ -0,0 +1,68 @@
+package com.mts.api.exceptions.handling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.domain.Money;
+import com.mts.api.exceptions.ApiErrorCode;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ApiErrorHandler}
+ */
+class ApiErrorHandlerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private ApiErrorHandler apiErrorHandler;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        apiErrorHandler = new ApiErrorHandler(meterRegistry, objectMapper);
+    }
+
+    @Test
+    @DisplayName("response - template bodies match what serializing the error node gives, for any message")
+    void testResponseBodyMatchesSerializedNode() throws Exception {
+        ResponseEntity<Object> response = apiErrorHandler.handleGeneralApiError(new InsufficientBalance(Money.valueOf("200")));
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"error\":{\"status\":404,\"reason\":\"ACCOUNT_LIST_LIMIT_REACHED\",\"message\":\"There isn't enough balance: 200.00\"}}",
+                body(response));
+
+        for (String message : new String[]{"quote \" backslash \\ newline \n tab \t", "ünïcödé €", "\u0001", "", null}) {
+            String expected = "{\"error\":{\"status\":500,\"reason\":\"GENERAL_EXCEPTION\",\"message\":"
+                    + objectMapper.writeValueAsString(message) + "}}";
+            assertEquals(expected, body(apiErrorHandler.response(HttpStatus.INTERNAL_SERVER_ERROR, message,
+                    ApiErrorCode.GENERAL_EXCEPTION, new IllegalStateException())));
+        }
+        assertEquals(5, meterRegistry.counter(BaseErrorHandler.ERRORS_METRIC,
+                "reason", "GENERAL_EXCEPTION", "status", "500").count());
+    }
+
+    @Test
+    @DisplayName("tryLog - each kind of error is logged a bounded number of times per second and counts what it skipped")
+    void testLogSampling() {
+        ErrorKind kind = new ErrorKind(HttpStatus.NOT_FOUND, ApiErrorCode.GENERAL_EXCEPTION, objectMapper, meterRegistry, 2);
+        assertEquals(0, kind.tryLog());
+        assertEquals(0, kind.tryLog());
+        assertEquals(-1, kind.tryLog());
+        assertEquals(-1, kind.tryLog());
+
+        assertEquals(0, new AccountDoesNotExist(1L).getStackTrace().length);
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,174 @@
+package com.mts.api.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.config.IdempotencyProperties;
+import com.mts.api.domain.IdempotencyRecord;
+import com.mts.api.domain.Money;
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.impl.ConcurrentModification;
+import com.mts.api.exceptions.impl.IdempotencyKeyInProgress;
+import com.mts.api.exceptions.impl.IdempotencyKeyReused;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.exceptions.impl.ServiceOverloaded;
+import com.mts.api.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link IdempotencyCache}
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyCacheTest {
+    private static final String KEY = "8e0f6f4c";
+    private static final String OTHER_KEY = "d41c7a90";
+    private static final List<Object> PARAMETERS = Arrays.asList(Money.valueOf("10"), 1L);
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyProperties idempotencyProperties;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void init() {
+        idempotencyProperties = new IdempotencyProperties();
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("execute - a repeated key returns the first result without executing again")
+    void testRepeatedKeyReturnsOriginalResult() {
+        IdempotencyCache cache = cache();
+
+        assertEquals(1, cache.execute(KEY, "withdraw", PARAMETERS, Integer.class, executions::incrementAndGet).intValue());
+        assertEquals(1, cache.execute(KEY, "withdraw", PARAMETERS, Integer.class, executions::incrementAndGet).intValue());
+        assertEquals(2, cache.execute(null, "deposit", PARAMETERS, Integer.class, executions::incrementAndGet).intValue());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    @DisplayName("execute - a key repeated with another operation or other parameters is refused")
+    void testReusedKeyCheckError() {
+        IdempotencyCache cache = cache();
+        cache.execute(KEY, "withdraw", PARAMETERS, Integer.class, executions::incrementAndGet);
+
+        assertThrows(IdempotencyKeyReused.class,
+                () -> cache.execute(KEY, "deposit", PARAMETERS, Integer.class, executions::incrementAndGet));
+        assertThrows(IdempotencyKeyReused.class, () -> cache.execute(KEY, "withdraw",
+                Arrays.asList(Money.valueOf("20"), 1L), Integer.class, executions::incrementAndGet));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute - business errors are replayed, unexpected errors allow a retry")
+    void testErrorsReplayOrForget() {
+        IdempotencyCache cache = cache();
+        InsufficientBalance insufficientBalance = new InsufficientBalance(Money.valueOf("1"));
+
+        assertThrows(InsufficientBalance.class, () -> cache.execute(KEY, "withdraw", PARAMETERS, Integer.class, () -> {
+            executions.incrementAndGet();
+            throw insufficientBalance;
+        }));
+        assertSame(insufficientBalance, assertThrows(InsufficientBalance.class,
+                () -> cache.execute(KEY, "withdraw", PARAMETERS, Integer.class, executions::incrementAndGet)));
+
+        assertThrows(IllegalStateException.class, () -> cache.execute(OTHER_KEY, "transfer", PARAMETERS, Integer.class, () -> {
+            throw new IllegalStateException("connection reset");
+        }));
+        assertEquals(2, cache.execute(OTHER_KEY, "transfer", PARAMETERS, Integer.class, executions::incrementAndGet).intValue());
+    }
+
+    @Test
+    @DisplayName("execute - persistent mode replays a completed record after a restart")
+    void testPersistentRecordIsReplayed() {
+        idempotencyProperties.setPersistent(true);
+        when(idempotencyRecordRepository.findById(eq(KEY))).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id(KEY)
+                .response("7")
+                .completed(true)
+                .createdAt(Instant.now())
+                .build()));
+
+        assertEquals(7, cache().execute(KEY, "withdraw", PARAMETERS, Integer.class, executions::incrementAndGet).intValue());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute - persistent mode refuses a key whose first attempt never completed")
+    void testPersistentPendingRecordCheckError() {
+        idempotencyProperties.setPersistent(true);
+        when(idempotencyRecordRepository.findById(eq(KEY))).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id(KEY)
+                .createdAt(Instant.now())
+                .build()));
+
+        assertThrows(IdempotencyKeyInProgress.class,
+                () -> cache().execute(KEY, "withdraw", PARAMETERS, Integer.class, executions::incrementAndGet));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute - persistent mode records business errors and replays them after a restart")
+    void testPersistentErrorIsRecordedAndReplayed() {
+        idempotencyProperties.setPersistent(true);
+        InsufficientBalance insufficientBalance = new InsufficientBalance(Money.valueOf("1"));
+
+        assertThrows(InsufficientBalance.class, () -> cache().execute(KEY, "withdraw", PARAMETERS, Integer.class, () -> {
+            throw insufficientBalance;
+        }));
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository, times(2)).save(saved.capture());
+        verify(idempotencyRecordRepository, never()).deleteById(any());
+        IdempotencyRecord record = saved.getValue();
+        when(idempotencyRecordRepository.findById(eq(KEY))).thenReturn(Optional.of(record));
+
+        ApiError replayed = assertThrows(ApiError.class,
+                () -> cache().execute(KEY, "withdraw", PARAMETERS, Integer.class, executions::incrementAndGet));
+        assertEquals(insufficientBalance.httpStatus(), replayed.httpStatus());
+        assertEquals(insufficientBalance.reason(), replayed.reason());
+        assertEquals(insufficientBalance.getMessage(), replayed.getMessage());
+        assertThrows(IdempotencyKeyReused.class,
+                () -> cache().execute(KEY, "deposit", PARAMETERS, Integer.class, executions::incrementAndGet));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    @DisplayName("execute - transient business errors are forgotten in memory and in the database")
+    void testTransientErrorsAreForgotten() {
+        IdempotencyCache cache = cache();
+        assertThrows(ConcurrentModification.class, () -> cache.execute(KEY, "withdraw", PARAMETERS, Integer.class, () -> {
+            throw new ConcurrentModification(1L);
+        }));
+        assertThrows(ServiceOverloaded.class, () -> cache.execute(KEY, "withdraw", PARAMETERS, Integer.class, () -> {
+            throw new ServiceOverloaded();
+        }));
+        assertEquals(1, cache.execute(KEY, "withdraw", PARAMETERS, Integer.class, executions::incrementAndGet).intValue());
+
+        idempotencyProperties.setPersistent(true);
+        assertThrows(ConcurrentModification.class, () -> cache().execute(OTHER_KEY, "withdraw", PARAMETERS, Integer.class, () -> {
+            throw new ConcurrentModification(1L);
+        }));
+        verify(idempotencyRecordRepository, times(1)).save(any());
+        verify(idempotencyRecordRepository).deleteById(OTHER_KEY);
+    }
+
+    private IdempotencyCache cache() {
+        return new IdempotencyCache(idempotencyRecordRepository, new ObjectMapper(), idempotencyProperties);
+    }
+}
@@ -0,0 +1,34 @@
+package com.mts.api.journal;
+
+import com.mts.api.domain.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link JournalingAspect}
+ */
+class JournalingAspectTest {
+
+    @Test
+    @DisplayName("append - a failed append does not fail an operation that already took effect")
+    void testFailedAppendDoesNotFailOperation() {
+        TransactionJournal transactionJournal = mock(TransactionJournal.class);
+        when(transactionJournal.append(eq(RecordType.TRANSFER), anyLong(), anyLong(), anyLong()))
+                .thenThrow(new UncheckedIOException(new IOException("disk full")));
+        JournalingAspect journalingAspect = new JournalingAspect(transactionJournal);
+
+        assertDoesNotThrow(() -> journalingAspect.moneyTransferred(Money.valueOf("2.50"), 1L, 2L));
+        journalingAspect.moneyDeposited(Money.valueOf("1"), 1L);
+
+        verify(transactionJournal).append(RecordType.TRANSFER, 1L, 2L, 250L);
+        verify(transactionJournal).append(RecordType.DEPOSIT, 1L, 0L, 100L);
+    }
+}
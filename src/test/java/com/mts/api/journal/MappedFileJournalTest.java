@@ -0,0 +1,130 @@
+package com.mts.api.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MappedFileJournal}
+ */
+class MappedFileJournalTest {
+    private static final int SEGMENT_SIZE = JournalRecord.SIZE * 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("replayBalances - balances survive a restart and segments roll when full")
+    void testReplayAfterReopenAcrossSegments() throws IOException {
+        try (MappedFileJournal journal = open(FsyncPolicy.PER_WRITE)) {
+            journal.append(RecordType.CREATE, 1, 0, 0);
+            journal.append(RecordType.CREATE, 2, 0, 0);
+            journal.append(RecordType.DEPOSIT, 1, 0, 10_000);
+            journal.append(RecordType.TRANSFER, 1, 2, 2_550);
+            journal.append(RecordType.WITHDRAW, 2, 0, 50);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+
+        try (MappedFileJournal journal = open(FsyncPolicy.PER_WRITE)) {
+            assertEquals(5, journal.lastSequence());
+            assertEquals(6, journal.append(RecordType.DEPOSIT, 2, 0, 1));
+
+            Map<Long, Long> balances = journal.replayBalances();
+            assertEquals(Long.valueOf(7_450), balances.get(1L));
+            assertEquals(Long.valueOf(2_501), balances.get(2L));
+        }
+    }
+
+    @Test
+    @DisplayName("replay - starting after a sequence skips earlier segments and records")
+    void testReplayAfterSequence() {
+        try (MappedFileJournal journal = open(FsyncPolicy.PER_WRITE)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(RecordType.DEPOSIT, 1, 0, 1);
+            }
+            for (long after : new long[]{0, 3, 4, 5, 9, 10}) {
+                List<Long> sequences = new ArrayList<>();
+                journal.replay(after, record -> sequences.add(record.getSequence()));
+                assertEquals(10 - after, sequences.size());
+                for (int i = 0; i < sequences.size(); i++) {
+                    assertEquals(after + 1 + i, sequences.get(i).longValue());
+                }
+            }
+            assertEquals(10, journal.durableSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("sequencesOf - the per-account index is rebuilt on restart and reads records across segments")
+    void testAccountIndex() {
+        try (MappedFileJournal journal = open(FsyncPolicy.PER_WRITE)) {
+            journal.append(RecordType.CREATE, 1, 0, 0);
+            journal.append(RecordType.CREATE, 2, 0, 0);
+            journal.append(RecordType.DEPOSIT, 1, 0, 10_000);
+            journal.append(RecordType.TRANSFER, 1, 2, 2_550);
+            journal.append(RecordType.WITHDRAW, 2, 0, 50);
+        }
+
+        try (MappedFileJournal journal = open(FsyncPolicy.PER_WRITE)) {
+            journal.append(RecordType.DEPOSIT, 2, 0, 1);
+            assertArrayEquals(new long[]{1, 3, 4}, journal.sequencesOf(1));
+            assertArrayEquals(new long[]{2, 4, 5, 6}, journal.sequencesOf(2));
+            assertArrayEquals(new long[0], journal.sequencesOf(3));
+
+            List<JournalRecord> records = new ArrayList<>();
+            journal.read(journal.sequencesOf(2), records::add);
+            assertEquals(4, records.size());
+            assertEquals(RecordType.TRANSFER, records.get(1).getType());
+            assertEquals(2_550, records.get(1).getAmount());
+            assertEquals(6, records.get(3).getSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("append - concurrent group-commit appends get unique, gap-free sequences")
+    void testGroupCommitConcurrentAppends() throws InterruptedException {
+        int threads = 8;
+        int perThread = 200;
+        try (MappedFileJournal journal = new MappedFileJournal(directory, JournalRecord.SIZE * 1024,
+                FsyncPolicy.GROUP_COMMIT, Duration.ofMillis(1))) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        journal.append(RecordType.DEPOSIT, 1, 0, 1);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+            List<Long> sequences = new ArrayList<>();
+            journal.replay(record -> sequences.add(record.getSequence()));
+            assertEquals(threads * perThread, sequences.size());
+            for (int i = 0; i < sequences.size(); i++) {
+                assertEquals(i + 1, sequences.get(i).longValue());
+            }
+            assertEquals(Long.valueOf(threads * perThread), journal.replayBalances().get(1L));
+        }
+    }
+
+    private MappedFileJournal open(FsyncPolicy fsyncPolicy) {
+        return new MappedFileJournal(directory, SEGMENT_SIZE, fsyncPolicy, Duration.ofMillis(1));
+    }
+}
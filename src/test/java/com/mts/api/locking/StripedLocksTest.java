@@ -0,0 +1,66 @@
+package com.mts.api.locking;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link StripedLocks}
+ */
+class StripedLocksTest {
+
+    @Test
+    @DisplayName("stripes - table size is rounded up to a power of two")
+    void testStripesRoundedToPowerOfTwo() {
+        assertEquals(1024, new StripedLocks(1000).stripes());
+        assertEquals(16, new StripedLocks(16).stripes());
+    }
+
+    @Test
+    @DisplayName("withLocks - opposing lock pairs complete without deadlock and without lost updates")
+    void testOpposingLockPairsDoNotDeadlock() throws InterruptedException {
+        StripedLocks locks = new StripedLocks(64);
+        long[] balances = new long[2];
+        int iterations = 10_000;
+        CountDownLatch done = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        executor.execute(() -> move(locks, balances, 1L, 2L, iterations, done));
+        executor.execute(() -> move(locks, balances, 2L, 1L, iterations, done));
+
+        assertTrue(done.await(10, TimeUnit.SECONDS), "transfers deadlocked");
+        executor.shutdown();
+        assertEquals(0, balances[0] + balances[1]);
+        assertEquals(0, balances[0]);
+    }
+
+    @Test
+    @DisplayName("withLocks - every stripe acquisition is recorded as lock wait")
+    void testLockWaitRecorded() {
+        Timer lockWait = new SimpleMeterRegistry().timer(StripedLocks.WAIT_METRIC);
+        StripedLocks locks = new StripedLocks(64, lockWait);
+
+        locks.withLock(1L, () -> null);
+        locks.withLocks(1L, 2L, () -> null);
+
+        assertEquals(1 + (locks.stripe(1L) == locks.stripe(2L) ? 1 : 2), lockWait.count());
+    }
+
+    private void move(StripedLocks locks, long[] balances, Long from, Long to, int iterations, CountDownLatch done) {
+        for (int i = 0; i < iterations; i++) {
+            locks.withLocks(from, to, () -> {
+                balances[(int) (from - 1)]--;
+                balances[(int) (to - 1)]++;
+                return null;
+            });
+        }
+        done.countDown();
+    }
+}
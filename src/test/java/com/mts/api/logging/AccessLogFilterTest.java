@@ -0,0 +1,86 @@
+package com.mts.api.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link AccessLogFilter}
+ */
+class AccessLogFilterTest {
+    private final AccessLogFilter filter = new AccessLogFilter();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger logger;
+
+    @BeforeEach
+    void init() {
+        logger = (Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void shutdown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    @DisplayName("doFilter - logs method, path without query, status and duration")
+    void testLogsRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/account/create");
+        request.setQueryString("email=someone@mail.com&username=someone");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(HttpServletResponse.SC_CREATED);
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.matches("method=POST path=/account/create status=201 duration_us=\\d+"), line);
+    }
+
+    @Test
+    @DisplayName("doFilter - a request failing with an exception is logged as 500")
+    void testLogsFailedRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/account/withdraw");
+        FilterChain failing = (req, res) -> {
+            throw new ServletException("failed");
+        };
+
+        assertThrows(ServletException.class, () -> filter.doFilter(request, new MockHttpServletResponse(), failing));
+
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains(" status=500 "));
+    }
+
+    @Test
+    @DisplayName("doFilter - an asynchronous request is logged when it completes")
+    void testLogsAsyncRequestOnCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reactive/account/1");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        assertTrue(appender.list.isEmpty());
+
+        response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        request.getAsyncContext().complete();
+
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().startsWith("method=GET path=/reactive/account/1 status=404 "));
+    }
+}
@@ -0,0 +1,57 @@
+package com.mts.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TimedDataSource}
+ */
+class TimedDataSourceTest {
+    private EmbeddedDatabase database;
+    private MeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        jdbcTemplate = new JdbcTemplate(new TimedDataSource(database, beanFactory.getBeanProvider(MeterRegistry.class)));
+    }
+
+    @AfterEach
+    void shutdown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("execute - statements are timed by type")
+    void testStatementsTimedByType() {
+        jdbcTemplate.execute("create table item (id bigint primary key)");
+        jdbcTemplate.update("insert into item values (?)", 1L);
+        jdbcTemplate.batchUpdate("insert into item values (?)", Arrays.asList(new Object[]{2L}, new Object[]{3L}));
+
+        assertEquals(Long.valueOf(3), jdbcTemplate.queryForObject("select count(*) from item", Long.class));
+        assertEquals(1, count("query"));
+        assertEquals(2, count("update"));
+        assertEquals(1, count("batch"));
+    }
+
+    private long count(String type) {
+        return meterRegistry.get(TimedDataSource.STATEMENT_METRIC).tag("type", type).timer().count();
+    }
+}
@@ -0,0 +1,144 @@
+package com.mts.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.exceptions.impl.StatementsUnavailable;
+import com.mts.api.journal.JournalRecord;
+import com.mts.api.journal.RecordType;
+import com.mts.api.journal.TransactionJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link AccountExportService}
+ */
+class AccountExportServiceTest {
+    private EmbeddedDatabase database;
+    private AccountManagementService accountManagementService;
+    private AccountExportService accountExportService;
+    private final List<JournalRecord> records = new ArrayList<>();
+    private final TransactionJournal journal = new TransactionJournal() {
+        @Override
+        public long append(RecordType type, long accountId, long counterparty, long amount) {
+            long sequence = records.size() + 1;
+            records.add(new JournalRecord(sequence, 1000 + sequence, type, accountId, counterparty, amount));
+            return sequence;
+        }
+
+        @Override
+        public void replay(Consumer<JournalRecord> consumer) {
+            records.forEach(consumer);
+        }
+    };
+
+    @BeforeEach
+    void init() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table user (user_id bigint primary key, email varchar(255), username varchar(255))");
+        jdbcTemplate.execute("create table account (account_id bigint primary key, balance decimal(19,2), "
+                + "version bigint, user_id_user_id bigint)");
+        jdbcTemplate.update("insert into user values (10, 'a@b.c', 'plain'), (11, 'd@e.f', 'Doe, \"JD\"')");
+        jdbcTemplate.update("insert into account values (2, 5.50, 3, 11), (1, 100, 0, 10)");
+
+        accountManagementService = mock(AccountManagementService.class);
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getExport().setFetchSize(1);
+        accountExportService = new AccountExportService(jdbcTemplate, accountManagementService, journal,
+                new ObjectMapper(), accountProperties);
+    }
+
+    @AfterEach
+    void shutdown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("exportAccounts - every account is written in id order as NDJSON or escaped CSV")
+    void testExportAccounts() throws IOException {
+        assertEquals("{\"accountId\":1,\"balance\":100.00,\"version\":0,\"username\":\"plain\",\"email\":\"a@b.c\"}\n"
+                        + "{\"accountId\":2,\"balance\":5.50,\"version\":3,\"username\":\"Doe, \\\"JD\\\"\",\"email\":\"d@e.f\"}\n",
+                write(accountExportService.exportAccounts(ExportFormat.NDJSON)));
+        assertEquals("accountId,balance,version,username,email\n"
+                        + "1,100.00,0,plain,a@b.c\n"
+                        + "2,5.50,3,\"Doe, \"\"JD\"\"\",d@e.f\n",
+                write(accountExportService.exportAccounts(ExportFormat.CSV)));
+    }
+
+    @Test
+    @DisplayName("statement - lists the account's movements with a running balance and rejects unknown accounts")
+    void testStatement() throws IOException {
+        journal.append(RecordType.CREATE, 1, 0, 0);
+        journal.append(RecordType.CREATE, 2, 0, 0);
+        journal.append(RecordType.DEPOSIT, 1, 0, 10_000);
+        journal.append(RecordType.DEPOSIT, 2, 0, 700);
+        journal.append(RecordType.TRANSFER, 1, 2, 2_550);
+        journal.append(RecordType.TRANSFER, 2, 1, 50);
+        when(accountManagementService.getBalance(2L)).thenReturn(balance(2L, 3_200));
+
+        assertEquals("sequence,timestamp,type,amount,counterparty,balance\n"
+                        + "2,1002,CREATE,0.00,,0.00\n"
+                        + "4,1004,DEPOSIT,7.00,,7.00\n"
+                        + "5,1005,TRANSFER,25.50,1,32.50\n"
+                        + "6,1006,TRANSFER,-0.50,1,32.00\n",
+                write(accountExportService.statement(2L, ExportFormat.CSV)));
+
+        when(accountManagementService.getBalance(9L)).thenThrow(new AccountDoesNotExist(9L));
+        assertThrows(AccountDoesNotExist.class, () -> accountExportService.statement(9L, ExportFormat.NDJSON));
+    }
+
+    @Test
+    @DisplayName("statement - the running balance opens at what the account held before it was journaled")
+    void testStatementOpensAtPreJournalBalance() throws IOException {
+        journal.append(RecordType.DEPOSIT, 1, 0, 2_000);
+        journal.append(RecordType.DEPOSIT, 2, 0, 100);
+        journal.append(RecordType.WITHDRAW, 1, 0, 500);
+        when(accountManagementService.getBalance(1L)).thenReturn(balance(1L, 11_500));
+
+        assertEquals("{\"sequence\":1,\"timestamp\":1001,\"type\":\"DEPOSIT\",\"amount\":20.00,"
+                        + "\"counterparty\":null,\"balance\":120.00}\n"
+                        + "{\"sequence\":3,\"timestamp\":1003,\"type\":\"WITHDRAW\",\"amount\":-5.00,"
+                        + "\"counterparty\":null,\"balance\":115.00}\n",
+                write(accountExportService.statement(1L, ExportFormat.NDJSON)));
+    }
+
+    @Test
+    @DisplayName("statement - refused with an error when the journal is disabled")
+    void testStatementWithoutJournal() {
+        AccountExportService withoutJournal = new AccountExportService(new JdbcTemplate(database),
+                accountManagementService, TransactionJournal.DISABLED, new ObjectMapper(), new AccountProperties());
+
+        assertThrows(StatementsUnavailable.class, () -> withoutJournal.statement(1L, ExportFormat.CSV));
+        verifyNoInteractions(accountManagementService);
+    }
+
+    private static AccountBalance balance(Long accountId, long units) {
+        return new AccountBalance(accountId, Money.ofUnits(units), Money.ZERO, 1L);
+    }
+
+    private static String write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,136 @@
+package com.mts.api.service;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.domain.User;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.dto.AccountDetails;
+import com.mts.api.dto.AccountPage;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link AccountQueryService}
+ */
+@ExtendWith(MockitoExtension.class)
+class AccountQueryServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AccountManagementService accountManagementService;
+
+    private AccountQueryService accountQueryService;
+
+    @BeforeEach
+    void init() {
+        accountQueryService = new AccountQueryService(accountRepository, userRepository, accountManagementService);
+    }
+
+    @Test
+    @DisplayName("pageById - a full page carries the cursor of its last row, a short page none, and the limit is capped")
+    void testPageByIdCursor() {
+        when(accountRepository.findPageAfterId(0L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(account(1L, "5"), account(4L, "1")));
+        when(accountRepository.findPageAfterId(4L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(account(7L, "0")));
+
+        AccountPage first = accountQueryService.pageById(null, 2);
+        assertEquals(Long.valueOf(4), first.getNextAfterId());
+        assertNull(first.getNextAfterBalance());
+
+        AccountPage last = accountQueryService.pageById(first.getNextAfterId(), 2);
+        assertEquals(1, last.getAccounts().size());
+        assertNull(last.getNextAfterId());
+
+        accountQueryService.pageById(0L, 1_000_000);
+        verify(accountRepository).findPageAfterId(0L, PageRequest.of(0, AccountQueryService.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    @DisplayName("pageByBalance - starts at the minimum balance and resumes from the (balance, id) cursor")
+    void testPageByBalanceCursor() {
+        when(accountRepository.findPageByBalance(Money.valueOf("10"), 0L, Money.valueOf("20"), PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(account(3L, "10"), account(2L, "20")));
+
+        AccountPage page = accountQueryService.pageByBalance(Money.valueOf("10"), Money.valueOf("20"), null, null, 2);
+        assertEquals(Long.valueOf(2), page.getNextAfterId());
+        assertEquals(Money.valueOf("20"), page.getNextAfterBalance());
+
+        accountQueryService.pageByBalance(Money.valueOf("10"), null, page.getNextAfterBalance(), page.getNextAfterId(), 2);
+        verify(accountRepository).findPageByBalance(eq(Money.valueOf("20")), eq(2L),
+                eq(Money.ofUnits(Long.MAX_VALUE)), eq(PageRequest.of(0, 2)));
+    }
+
+    @Test
+    @DisplayName("pageByBalance - a cursor below the minimum balance starts at the minimum with no id bound")
+    void testPageByBalanceCursorBelowMinimum() {
+        accountQueryService.pageByBalance(Money.valueOf("10"), null, Money.valueOf("5"), 42L, 2);
+
+        verify(accountRepository).findPageByBalance(eq(Money.valueOf("10")), eq(0L),
+                eq(Money.ofUnits(Long.MAX_VALUE)), eq(PageRequest.of(0, 2)));
+    }
+
+    @Test
+    @DisplayName("pageByBalance - without a minimum balance overdrawn accounts are listed too")
+    void testPageByBalanceWithoutMinimum() {
+        when(accountRepository.findPageByBalance(Money.ofUnits(Long.MIN_VALUE), 0L, Money.valueOf("20"), PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(account(8L, "-3")));
+
+        AccountPage page = accountQueryService.pageByBalance(null, Money.valueOf("20"), null, null, 2);
+        assertEquals(Money.valueOf("-3"), page.getAccounts().get(0).getBalance());
+    }
+
+    @Test
+    @DisplayName("findByEmail - accounts are returned as details with their user, not as entities")
+    void testFindByEmailReturnsDetails() {
+        Account account = account(5L, "10");
+        account.setUserId(User.builder().userId(9L).username("owner").email("owner@mail.com").build());
+        when(accountRepository.findByEmail("owner@mail.com")).thenReturn(Collections.singletonList(account));
+
+        assertEquals(Collections.singletonList(
+                new AccountDetails(5L, 9L, "owner", "owner@mail.com", Money.valueOf("10"), Money.ZERO)),
+                accountQueryService.findByEmail("owner@mail.com"));
+    }
+
+    @Test
+    @DisplayName("details - combines the engine's balance with the user looked up by id")
+    void testDetails() {
+        when(accountManagementService.getBalance(5L))
+                .thenReturn(new AccountBalance(5L, Money.valueOf("10"), Money.valueOf("4"), 3L));
+        when(accountRepository.findUserIdById(5L)).thenReturn(Optional.of(9L));
+        when(userRepository.findById(9L))
+                .thenReturn(Optional.of(User.builder().userId(9L).username("owner").email("owner@mail.com").build()));
+
+        AccountDetails details = accountQueryService.details(5L);
+        assertEquals(new AccountDetails(5L, 9L, "owner", "owner@mail.com", Money.valueOf("10"), Money.valueOf("4")), details);
+        assertEquals(Money.valueOf("6"), details.getAvailable());
+
+        when(accountRepository.findUserIdById(6L)).thenReturn(Optional.empty());
+        assertThrows(AccountDoesNotExist.class, () -> accountQueryService.details(6L));
+    }
+
+    private static Account account(Long accountId, String balance) {
+        return Account.builder()
+                .accountId(accountId)
+                .balance(Money.valueOf(balance))
+                .build();
+    }
+}
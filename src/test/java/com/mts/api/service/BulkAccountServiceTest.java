@@ -0,0 +1,140 @@
+package com.mts.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Account;
+import com.mts.api.dto.BulkCreateFailure;
+import com.mts.api.dto.BulkCreateResponse;
+import com.mts.api.exceptions.impl.MalformedUpload;
+import com.mts.api.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link BulkAccountService}
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkAccountServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkAccountService bulkAccountService;
+    private final List<List<String>> insertedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getBulk().setChunkSize(2);
+        bulkAccountService = new BulkAccountService(accountRepository, new TransactionTemplate(transactionManager),
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), accountProperties);
+    }
+
+    @Test
+    @DisplayName("createAccounts - NDJSON rows are inserted in chunks and invalid rows are rejected")
+    void testCreateAccountsFromNdjson() throws IOException {
+        recordInsertedChunks();
+
+        BulkCreateResponse response = bulkAccountService.createAccounts(ExportFormat.NDJSON, body(
+                "{\"email\":\"a@b.c\",\"username\":\"a\"}\n"
+                        + "{\"email\":\"not-an-email\",\"username\":\"b\"}\n"
+                        + "{\"email\":\"c@b.c\",\"username\":\"c\"}\n"
+                        + "{\"username\":\"d\"}\n"
+                        + "{\"email\":\"e@b.c\",\"username\":\"e\"}\n"));
+
+        assertEquals(3, response.getCreated());
+        assertEquals(2, response.getRejected());
+        assertEquals(2, response.getFailures().size());
+        assertEquals(1, response.getFailures().get(0).getRow());
+        assertEquals("email must be a well-formed email address", response.getFailures().get(0).getReason());
+        assertEquals(3, response.getFailures().get(1).getRow());
+        assertTrue(response.getRowsPerSecond() > 0);
+        assertEquals(2, insertedChunks.size());
+        assertEquals(2, insertedChunks.get(0).size());
+        assertEquals("e", insertedChunks.get(1).get(0));
+    }
+
+    @Test
+    @DisplayName("createAccounts - CSV columns are matched by header and a failed chunk is reported without stopping the upload")
+    void testCreateAccountsFromCsvWithFailedChunk() throws IOException {
+        when(accountRepository.saveAll(anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .then(invocation -> invocation.getArgument(0));
+
+        BulkCreateResponse response = bulkAccountService.createAccounts(ExportFormat.CSV, body(
+                "username,email\n"
+                        + "a,a@b.c\n"
+                        + "\"Doe, \"\"JD\"\"\",d@b.c\n"
+                        + "\n"
+                        + "c,c@b.c\n"));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getRejected());
+        BulkCreateFailure failure = response.getFailures().get(0);
+        assertEquals(0, failure.getRow());
+        assertEquals("Transaction failed for rows 0 to 1", failure.getReason());
+        verify(accountRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("createAccounts - a CSV header without the email and username columns is refused")
+    void testMalformedCsvHeaderCheckError() {
+        MalformedUpload error = assertThrows(MalformedUpload.class,
+                () -> bulkAccountService.createAccounts(ExportFormat.CSV, body("name,mail\na,a@b.c\n")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.httpStatus());
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("createAccounts - a malformed NDJSON row ends the upload and the rows before it are still reported")
+    void testMalformedNdjsonRowEndsUpload() throws IOException {
+        recordInsertedChunks();
+
+        BulkCreateResponse response = bulkAccountService.createAccounts(ExportFormat.NDJSON, body(
+                "{\"email\":\"a@b.c\",\"username\":\"a\"}\n"
+                        + "{\"email\":\"b@b.c\",\"username\":\"b\"}\n"
+                        + "{\"email\":\"c@b.c\",\"username\":\"c\"}\n"
+                        + "{\"email\":\n"
+                        + "{\"email\":\"e@b.c\",\"username\":\"e\"}\n"));
+
+        assertEquals(3, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertEquals(3, response.getFailures().get(0).getRow());
+        assertEquals(2, insertedChunks.size());
+    }
+
+    private void recordInsertedChunks() {
+        when(accountRepository.saveAll(anyList())).then(invocation -> {
+            List<Account> chunk = invocation.getArgument(0);
+            List<String> usernames = new ArrayList<>();
+            chunk.forEach(account -> usernames.add(account.getUserId().getUsername()));
+            insertedChunks.add(usernames);
+            return chunk;
+        });
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
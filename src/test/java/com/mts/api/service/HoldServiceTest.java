@@ -0,0 +1,173 @@
+package com.mts.api.service;
+
+import com.mts.api.config.AccountProperties;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.Hold;
+import com.mts.api.exceptions.impl.HoldNotFound;
+import com.mts.api.exceptions.impl.InvalidHoldRequest;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.timer.TimerWheel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link HoldService}
+ */
+@ExtendWith(MockitoExtension.class)
+class HoldServiceTest {
+    private static final Long ACCOUNT_ID = 10L;
+
+    @Mock
+    private AccountManagementService accountManagementService;
+    @Mock
+    private AccountRepository accountRepository;
+
+    private TimerWheel timerWheel;
+    private Scheduler scheduler;
+    private AccountProperties accountProperties;
+    private HoldService holdService;
+
+    @BeforeEach
+    void init() {
+        timerWheel = new TimerWheel("test-hold-expiry", Duration.ofMillis(5), 8);
+        accountProperties = new AccountProperties();
+        accountProperties.getHold().setRetryDelay(Duration.ofMillis(20));
+        scheduler = Schedulers.newSingle("test-account-io");
+        holdService = new HoldService(accountManagementService, accountRepository, timerWheel, scheduler,
+                accountProperties, new SimpleMeterRegistry());
+        holdService.releaseOrphanedHolds();
+    }
+
+    @AfterEach
+    void shutdown() {
+        timerWheel.shutdown();
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("capture - a partial capture settles the amount and releases the rest")
+    void testPartialCaptureReleasesRest() {
+        Hold hold = holdService.place(ACCOUNT_ID, Money.valueOf("10"), null);
+        verify(accountManagementService).holdMoney(Money.valueOf("10"), ACCOUNT_ID);
+
+        holdService.capture(hold.getHoldId(), Money.valueOf("7.50"));
+
+        verify(accountManagementService).captureMoney(Money.valueOf("7.50"), ACCOUNT_ID);
+        verify(accountManagementService).releaseMoney(Money.valueOf("2.50"), ACCOUNT_ID);
+        assertEquals(0, holdService.openHolds());
+    }
+
+    @Test
+    @DisplayName("capture - more than was held is rejected and the hold stays open")
+    void testCaptureAboveHoldIsRejected() {
+        Hold hold = holdService.place(ACCOUNT_ID, Money.valueOf("10"), null);
+
+        assertThrows(InvalidHoldRequest.class, () -> holdService.capture(hold.getHoldId(), Money.valueOf("11")));
+
+        verify(accountManagementService, never()).captureMoney(any(), any());
+        assertEquals(hold, holdService.get(hold.getHoldId()));
+    }
+
+    @Test
+    @DisplayName("capture - a zero or negative amount is rejected and the hold stays open")
+    void testNonPositiveCaptureIsRejected() {
+        Hold hold = holdService.place(ACCOUNT_ID, Money.valueOf("10"), null);
+
+        assertThrows(InvalidHoldRequest.class, () -> holdService.capture(hold.getHoldId(), Money.ZERO));
+        assertThrows(InvalidHoldRequest.class, () -> holdService.capture(hold.getHoldId(), Money.valueOf("-5")));
+        assertThrows(InvalidHoldRequest.class, () -> holdService.place(ACCOUNT_ID, Money.valueOf("-5"), null));
+
+        verify(accountManagementService, never()).captureMoney(any(), any());
+        verify(accountManagementService, never()).releaseMoney(any(), any());
+        verify(accountManagementService, times(1)).holdMoney(any(), any());
+        assertEquals(hold, holdService.get(hold.getHoldId()));
+    }
+
+    @Test
+    @DisplayName("release - a hold is settled only once")
+    void testReleaseIsSettledOnce() {
+        Hold hold = holdService.place(ACCOUNT_ID, Money.valueOf("10"), null);
+
+        holdService.release(hold.getHoldId());
+
+        assertThrows(HoldNotFound.class, () -> holdService.release(hold.getHoldId()));
+        assertThrows(HoldNotFound.class, () -> holdService.capture(hold.getHoldId(), null));
+        verify(accountManagementService, times(1)).releaseMoney(Money.valueOf("10"), ACCOUNT_ID);
+    }
+
+    @Test
+    @DisplayName("place - an unsettled hold is released when it expires, even past one turn of the wheel")
+    void testExpiredHoldIsReleased() {
+        Hold hold = holdService.place(ACCOUNT_ID, Money.valueOf("10"), Duration.ofMillis(100));
+
+        verify(accountManagementService, timeout(2000)).releaseMoney(Money.valueOf("10"), ACCOUNT_ID);
+        assertTrue(System.currentTimeMillis() >= hold.getExpiresAt());
+        assertThrows(HoldNotFound.class, () -> holdService.get(hold.getHoldId()));
+    }
+
+    @Test
+    @DisplayName("release - a failed release keeps the hold open")
+    void testFailedReleaseKeepsHold() {
+        Hold hold = holdService.place(ACCOUNT_ID, Money.valueOf("10"), null);
+        when(accountManagementService.releaseMoney(Money.valueOf("10"), ACCOUNT_ID))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(null);
+
+        assertThrows(QueryTimeoutException.class, () -> holdService.release(hold.getHoldId()));
+        assertEquals(hold, holdService.get(hold.getHoldId()));
+
+        holdService.release(hold.getHoldId());
+        assertEquals(0, holdService.openHolds());
+    }
+
+    @Test
+    @DisplayName("capture - when releasing the rest fails the capture stands and the rest stays held")
+    void testFailedReleaseOfRestKeepsRest() {
+        Hold hold = holdService.place(ACCOUNT_ID, Money.valueOf("10"), null);
+        when(accountManagementService.releaseMoney(Money.valueOf("4"), ACCOUNT_ID))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        holdService.capture(hold.getHoldId(), Money.valueOf("6"));
+
+        verify(accountManagementService).captureMoney(Money.valueOf("6"), ACCOUNT_ID);
+        assertEquals(Money.valueOf("4"), holdService.get(hold.getHoldId()).getAmount());
+    }
+
+    @Test
+    @DisplayName("place - an expired hold whose release fails is released again off the timer thread")
+    void testFailedExpiryIsRetried() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(accountManagementService.releaseMoney(Money.valueOf("10"), ACCOUNT_ID))
+                .then(invocation -> {
+                    threads.add(Thread.currentThread().getName());
+                    throw new QueryTimeoutException("timeout");
+                })
+                .then(invocation -> {
+                    threads.add(Thread.currentThread().getName());
+                    return null;
+                });
+
+        holdService.place(ACCOUNT_ID, Money.valueOf("10"), Duration.ofMillis(10));
+
+        verify(accountManagementService, timeout(2000).times(2)).releaseMoney(Money.valueOf("10"), ACCOUNT_ID);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("test-account-io")), threads::toString);
+        verify(accountManagementService, after(100).times(2)).releaseMoney(Money.valueOf("10"), ACCOUNT_ID);
+        assertEquals(0, holdService.openHolds());
+    }
+}
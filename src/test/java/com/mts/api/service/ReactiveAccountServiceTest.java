@@ -0,0 +1,91 @@
+package com.mts.api.service;
+
+import com.mts.api.config.IdempotencyProperties;
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.dto.AccountBalance;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.exceptions.impl.ServiceOverloaded;
+import com.mts.api.idempotency.IdempotencyCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ReactiveAccountService}
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveAccountServiceTest {
+    private static final Long ACCOUNT_ID = 10L;
+
+    @Mock
+    private AccountManagementService accountManagementService;
+    private Scheduler scheduler;
+    private ReactiveAccountService reactiveAccountService;
+
+    @BeforeEach
+    void init() {
+        scheduler = Schedulers.newBoundedElastic(1, 1, "test");
+        reactiveAccountService = new ReactiveAccountService(accountManagementService,
+                new IdempotencyCache(null, null, new IdempotencyProperties()), scheduler);
+    }
+
+    @AfterEach
+    void shutdown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    @DisplayName("depositMoney - runs on the account scheduler, not on the caller")
+    void testDepositRunsOnScheduler() {
+        Account account = Account.builder().accountId(ACCOUNT_ID).balance(Money.valueOf("10")).build();
+        when(accountManagementService.depositMoney(Money.valueOf("10"), ACCOUNT_ID)).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("test"));
+            return account;
+        });
+
+        assertEquals(AccountBalance.of(account), reactiveAccountService.depositMoney(Money.valueOf("10"), ACCOUNT_ID, null).block());
+    }
+
+    @Test
+    @DisplayName("withdrawMoney - business errors are signalled through the Mono")
+    void testWithdrawErrorSignalled() {
+        when(accountManagementService.withdrawMoney(Money.valueOf("10"), ACCOUNT_ID))
+                .thenThrow(new InsufficientBalance(Money.valueOf("10")));
+
+        assertThrows(InsufficientBalance.class,
+                () -> reactiveAccountService.withdrawMoney(Money.valueOf("10"), ACCOUNT_ID, null).block());
+    }
+
+    @Test
+    @DisplayName("transferMoney - requests beyond the thread and queue capacity are rejected")
+    void testTransferRejectedWhenSaturated() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(accountManagementService).transferMoney(any(), any(), any());
+
+        reactiveAccountService.transferMoney(Money.valueOf("1"), 1L, 2L, null).subscribe();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        reactiveAccountService.transferMoney(Money.valueOf("1"), 1L, 2L, null).subscribe();
+
+        assertThrows(ServiceOverloaded.class,
+                () -> reactiveAccountService.transferMoney(Money.valueOf("1"), 1L, 2L, null).block());
+        release.countDown();
+    }
+}
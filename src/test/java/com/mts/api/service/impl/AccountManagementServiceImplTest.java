@@ -1,10 +1,18 @@
 package com.mts.api.service.impl;
 
+import com.mts.api.cache.AccountBalanceCache;
+import com.mts.api.commit.GroupCommitWriter;
+import com.mts.api.config.AccountProperties;
 import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
 import com.mts.api.domain.User;
 import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.exceptions.impl.ConcurrentModification;
 import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.locking.StripedLocks;
 import com.mts.api.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,8 +21,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,37 +43,50 @@ class AccountManagementServiceImplTest {
 
     @Mock
     private AccountRepository accountRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private AccountBalanceCache accountBalanceCache;
 
     @Captor
     private ArgumentCaptor<Account> argumentCaptor;
     private AccountManagementServiceImpl accountManagementService;
+    private AccountProperties accountProperties;
+    private MeterRegistry meterRegistry;
+    private GroupCommitWriter groupCommitWriter;
 
     @BeforeEach
     void init() {
-        accountManagementService = spy(new AccountManagementServiceImpl(accountRepository));
+        accountProperties = new AccountProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        groupCommitWriter = new GroupCommitWriter(transactionTemplate, 16, 16, Duration.ZERO);
+        accountManagementService = spy(new AccountManagementServiceImpl(accountRepository, transactionTemplate,
+                new StripedLocks(16), accountProperties, meterRegistry, groupCommitWriter, accountBalanceCache));
     }
 
     @Test
     @DisplayName("createAccount - check account was created with expected values")
     void testCreateAccountReturnsExpectedAccount() {
-        Account expected = createAccount(BigDecimal.TEN, ACCOUNT_ID);
+        Account expected = createAccount(Money.valueOf("10"), ACCOUNT_ID);
         doReturn(expected).when(accountRepository).save(argumentCaptor.capture());
         Account actual = accountManagementService.createAccount(USER_EMAIL, USERNAME);
         assertEquals(expected, actual);
+        verify(accountBalanceCache).update(expected);
     }
 
     @Test
     @DisplayName("withdrawMoney - on valid account check if balance charged correctly")
     void testWithdrawMoneyOnValidAccountCheckRemainingBalance() {
-        BigDecimal amount = BigDecimal.TEN;
-        BigDecimal accountBalance = new BigDecimal(20);
+        Money amount = Money.valueOf("10");
+        Money accountBalance = Money.valueOf("20");
         Account account = createAccount(accountBalance, ACCOUNT_ID);
         when(accountRepository.findById(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
 
         when(accountRepository.save(argumentCaptor.capture())).thenReturn(account);
         accountManagementService.withdrawMoney(amount, ACCOUNT_ID);
-        BigDecimal actualBalance = argumentCaptor.getValue().getBalance();
-        BigDecimal expectedBalance = accountBalance.subtract(amount);
+        Money actualBalance = argumentCaptor.getValue().getBalance();
+        Money expectedBalance = accountBalance.minus(amount);
 
         assertEquals(expectedBalance, actualBalance);
     }
@@ -70,7 +94,7 @@ class AccountManagementServiceImplTest {
     @Test
     @DisplayName("withdrawMoney - on invalid account check error message")
     void testWithdrawMoneyOnInvalidAccountCheckError() {
-        BigDecimal amount = BigDecimal.TEN;
+        Money amount = Money.valueOf("10");
         when(accountRepository.findById(eq(ACCOUNT_ID))).thenThrow(new AccountDoesNotExist(ACCOUNT_ID));
 
         AccountDoesNotExist thrown = assertThrows(
@@ -85,8 +109,8 @@ class AccountManagementServiceImplTest {
     @Test
     @DisplayName("withdrawMoney - on empty balance check error")
     void testWithdrawMoneyOnEmptyBalanceCheckError() {
-        BigDecimal amount = BigDecimal.TEN;
-        BigDecimal balance = BigDecimal.ZERO;
+        Money amount = Money.valueOf("10");
+        Money balance = Money.ZERO;
         Account account = createAccount(balance, ACCOUNT_ID);
         when(accountRepository.findById(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
 
@@ -98,27 +122,26 @@ class AccountManagementServiceImplTest {
     @Test
     @DisplayName("depositMoney - on invalid account check error message")
     void testDepositMoneyOnInvalidAccountCheckError() {
-        BigDecimal amount = BigDecimal.TEN;
+        Money amount = Money.valueOf("10");
         when(accountRepository.findById(eq(ACCOUNT_ID))).thenThrow(new AccountDoesNotExist(ACCOUNT_ID));
         AccountDoesNotExist thrown = assertThrows(AccountDoesNotExist.class, () -> accountManagementService.depositMoney(amount, ACCOUNT_ID));
         //check exception message
         assertTrue(thrown.getMessage().contains(String.format("Account does not exist: %s", ACCOUNT_ID)));
     }
 
-
     @Test
     @DisplayName("depositMoney - on valid account check balance updated")
     void testDepositMoneyOnValidAccountCheckBalance() {
-        BigDecimal amount = BigDecimal.TEN;
-        BigDecimal balance = new BigDecimal(101);
+        Money amount = Money.valueOf("10");
+        Money balance = Money.valueOf("101");
         Account account = createAccount(balance, ACCOUNT_ID);
         when(accountRepository.findById(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
         when(accountRepository.save(argumentCaptor.capture())).thenReturn(account);
 
         accountManagementService.depositMoney(amount, ACCOUNT_ID);
 
-        BigDecimal expectedBalance = balance.add(amount);
-        BigDecimal actualBalance = argumentCaptor.getValue().getBalance();
+        Money expectedBalance = balance.plus(amount);
+        Money actualBalance = argumentCaptor.getValue().getBalance();
         assertEquals(expectedBalance, actualBalance);
     }
 
@@ -128,10 +151,10 @@ class AccountManagementServiceImplTest {
         Long fromAccountId = 1L;
         Long toAccountId = 2L;
 
-        BigDecimal amount = BigDecimal.TEN;
+        Money amount = Money.valueOf("10");
 
-        BigDecimal fromAccountBalance = new BigDecimal(101);
-        BigDecimal toAccountBalance = BigDecimal.ZERO;
+        Money fromAccountBalance = Money.valueOf("101");
+        Money toAccountBalance = Money.ZERO;
 
         Account fromAccount = createAccount(fromAccountBalance, fromAccountId);
         Account toAccount = createAccount(toAccountBalance, toAccountId);
@@ -141,11 +164,11 @@ class AccountManagementServiceImplTest {
 
         when(accountRepository.save(argumentCaptor.capture())).thenReturn(toAccount);
         accountManagementService.transferMoney(amount, fromAccountId, toAccountId);
-        BigDecimal actualFromAccountBalance = argumentCaptor.getAllValues().get(0).getBalance();
-        BigDecimal actualToAccountBalance = argumentCaptor.getAllValues().get(1).getBalance();
+        Money actualFromAccountBalance = argumentCaptor.getAllValues().get(0).getBalance();
+        Money actualToAccountBalance = argumentCaptor.getAllValues().get(1).getBalance();
 
-        BigDecimal expectedFromAccountBalance = fromAccountBalance.subtract(amount);
-        BigDecimal expectedToAccountBalance = toAccountBalance.add(amount);
+        Money expectedFromAccountBalance = fromAccountBalance.minus(amount);
+        Money expectedToAccountBalance = toAccountBalance.plus(amount);
 
         assertEquals(expectedFromAccountBalance, actualFromAccountBalance);
         assertEquals(expectedToAccountBalance, actualToAccountBalance);
@@ -154,8 +177,8 @@ class AccountManagementServiceImplTest {
     @Test
     @DisplayName("transferMoney - fail on insufficient balance")
     void testTransferMoneyOnInsufficientBalanceCheckError() {
-        BigDecimal amount = BigDecimal.TEN;
-        Account account = createAccount(BigDecimal.ZERO, ACCOUNT_ID);
+        Money amount = Money.valueOf("10");
+        Account account = createAccount(Money.ZERO, ACCOUNT_ID);
         Long toAccountId = 10L;
         when(accountRepository.findById(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
         InsufficientBalance thrown = assertThrows(InsufficientBalance.class,
@@ -164,7 +187,93 @@ class AccountManagementServiceImplTest {
         assertTrue(thrown.getMessage().contains(String.format("There isn't enough balance: %s", amount)));
     }
 
-    private Account createAccount(BigDecimal balance, Long accountId) {
+    @Test
+    @DisplayName("depositMoney - optimistic version conflict is retried and counted")
+    void testDepositMoneyRetriesOnVersionConflict() {
+        Account account = createAccount(Money.valueOf("1"), ACCOUNT_ID);
+        when(accountRepository.findById(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
+        when(accountRepository.save(any())).thenReturn(account);
+        doThrow(new OptimisticLockingFailureException("stale")).doNothing().when(transactionManager).commit(any());
+
+        accountManagementService.depositMoney(Money.valueOf("10"), ACCOUNT_ID);
+
+        verify(accountRepository, times(2)).findById(eq(ACCOUNT_ID));
+        assertEquals(1, meterRegistry.counter(AccountManagementServiceImpl.RETRIES_METRIC).count());
+    }
+
+    @Test
+    @DisplayName("depositMoney - gives up after max retries with a conflict error")
+    void testDepositMoneyAbortsAfterMaxRetries() {
+        accountProperties.getLocking().setMaxRetries(1);
+        Account account = createAccount(Money.valueOf("1"), ACCOUNT_ID);
+        when(accountRepository.findById(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
+        when(accountRepository.save(any())).thenReturn(account);
+        doThrow(new OptimisticLockingFailureException("stale")).when(transactionManager).commit(any());
+
+        assertThrows(ConcurrentModification.class, () -> accountManagementService.depositMoney(Money.valueOf("10"), ACCOUNT_ID));
+        assertEquals(1, meterRegistry.counter(AccountManagementServiceImpl.ABORTS_METRIC).count());
+    }
+
+    @Test
+    @DisplayName("depositMoney - group commit retries version conflicts and returns each caller its own state")
+    void testGroupCommitRetriesAndReturnsOwnState() {
+        accountProperties.setWriteMode(AccountProperties.WriteMode.GROUP_COMMIT);
+        groupCommitWriter.start();
+        Account account = createAccount(Money.valueOf("1"), ACCOUNT_ID);
+        when(accountRepository.findById(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
+        when(accountRepository.save(any())).thenReturn(account);
+        // the group commit and the mutation's own commit both conflict, the retry commits
+        doThrow(new OptimisticLockingFailureException("stale"))
+                .doThrow(new OptimisticLockingFailureException("stale"))
+                .doNothing()
+                .when(transactionManager).commit(any());
+        try {
+            Account first = accountManagementService.depositMoney(Money.valueOf("10"), ACCOUNT_ID);
+            Money afterFirst = account.getBalance();
+            Account second = accountManagementService.depositMoney(Money.valueOf("5"), ACCOUNT_ID);
+
+            assertEquals(1, meterRegistry.counter(AccountManagementServiceImpl.RETRIES_METRIC).count());
+            assertNotSame(account, first);
+            assertEquals(afterFirst, first.getBalance());
+            assertEquals(afterFirst.plus(Money.valueOf("5")), second.getBalance());
+            verify(accountRepository, atLeast(2)).flush();
+        } finally {
+            groupCommitWriter.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("withdrawMoney - pessimistic strategy reads the row for update")
+    void testWithdrawMoneyPessimisticUsesSelectForUpdate() {
+        accountProperties.getLocking().setStrategy(AccountProperties.LockingStrategy.PESSIMISTIC);
+        Account account = createAccount(Money.valueOf("10"), ACCOUNT_ID);
+        when(accountRepository.findByIdForUpdate(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
+        when(accountRepository.save(any())).thenReturn(account);
+
+        accountManagementService.withdrawMoney(Money.valueOf("1"), ACCOUNT_ID);
+
+        verify(accountRepository, never()).findById(any());
+        assertEquals(Money.valueOf("9"), account.getBalance());
+    }
+
+    @Test
+    @DisplayName("holdMoney - held funds stay in the balance but cannot be withdrawn, capture removes them")
+    void testHeldFundsAreNotAvailable() {
+        Account account = createAccount(Money.valueOf("10"), ACCOUNT_ID);
+        when(accountRepository.findById(eq(ACCOUNT_ID))).thenReturn(Optional.of(account));
+        when(accountRepository.save(any())).thenReturn(account);
+
+        accountManagementService.holdMoney(Money.valueOf("8"), ACCOUNT_ID);
+        assertEquals(Money.valueOf("10"), account.getBalance());
+        assertEquals(Money.valueOf("2"), account.getAvailable());
+        assertThrows(InsufficientBalance.class, () -> accountManagementService.withdrawMoney(Money.valueOf("3"), ACCOUNT_ID));
+
+        accountManagementService.captureMoney(Money.valueOf("8"), ACCOUNT_ID);
+        assertEquals(Money.valueOf("2"), account.getBalance());
+        assertEquals(Money.ZERO, account.getHeld());
+    }
+
+    private Account createAccount(Money balance, Long accountId) {
         return Account.builder()
                 .accountId(accountId)
                 .userId(User.builder()
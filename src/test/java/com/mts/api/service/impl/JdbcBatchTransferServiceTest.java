@@ -0,0 +1,175 @@
+package com.mts.api.service.impl;
+
+import com.mts.api.cache.AccountBalanceCache;
+import com.mts.api.config.AccountProperties;
+import com.mts.api.dto.BatchTransferResponse;
+import com.mts.api.dto.TransferRequest;
+import com.mts.api.dto.TransferResult;
+import com.mts.api.journal.TransactionJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link JdbcBatchTransferService}
+ */
+class JdbcBatchTransferServiceTest {
+    private EmbeddedDatabase database;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private JdbcBatchTransferService batchTransferService;
+    private AccountBalanceCache accountBalanceCache;
+
+    @BeforeEach
+    void init() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(database);
+        jdbcTemplate.getJdbcOperations().execute(
+                "create table account (account_id bigint primary key, balance decimal(19,2), held decimal(19,2), version bigint)");
+        jdbcTemplate.getJdbcOperations().update("insert into account values (1, 100, 0, 0), (2, 0, null, 0), (3, 5, 0, 0)");
+
+        accountBalanceCache = mock(AccountBalanceCache.class);
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getBatch().setChunkSize(2);
+        batchTransferService = new JdbcBatchTransferService(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(database)), accountProperties,
+                TransactionJournal.DISABLED, accountBalanceCache);
+    }
+
+    @AfterEach
+    void shutdown() {
+        database.shutdown();
+    }
+
+    @Test
+    @DisplayName("transfer - accepted transfers are netted per account and rejected ones are reported")
+    void testTransferNetsDeltasAndReportsRejections() {
+        BatchTransferResponse response = batchTransferService.transfer(Arrays.asList(
+                transfer(1L, 2L, "60"),
+                transfer(2L, 3L, "10.50"),
+                transfer(1L, 2L, "60"),
+                transfer(1L, 9L, "1"),
+                transfer(3L, 1L, "0.001")).iterator());
+
+        assertEquals(2, response.getApplied());
+        assertEquals(3, response.getRejected());
+        assertEquals(0, response.getFailed());
+        assertEquals(TransferResult.Status.APPLIED, response.getResults().get(0).getStatus());
+        assertEquals(TransferResult.Status.REJECTED, response.getResults().get(2).getStatus());
+        assertEquals("Account does not exist: 9", response.getResults().get(3).getReason());
+        assertEquals(4, response.getResults().get(4).getIndex());
+
+        assertEquals(new BigDecimal("40.00"), balance(1L));
+        assertEquals(new BigDecimal("49.50"), balance(2L));
+        assertEquals(new BigDecimal("15.50"), balance(3L));
+        assertEquals(Long.valueOf(1), jdbcTemplate.getJdbcOperations()
+                .queryForObject("select version from account where account_id = 1", Long.class));
+        verify(accountBalanceCache).invalidate(1L);
+        verify(accountBalanceCache, times(2)).invalidate(2L);
+        verify(accountBalanceCache, never()).invalidate(9L);
+    }
+
+    @Test
+    @DisplayName("transfer - unreadable input keeps settled chunks and reports the rest as not run")
+    void testUnreadableInputReportsNotRun() {
+        Iterator<TransferRequest> readable = Arrays.asList(
+                transfer(1L, 2L, "10"),
+                transfer(1L, 3L, "10"),
+                transfer(2L, 3L, "5")).iterator();
+        Iterator<TransferRequest> transfers = new Iterator<TransferRequest>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public TransferRequest next() {
+                if (readable.hasNext()) {
+                    return readable.next();
+                }
+                throw new IllegalStateException("malformed");
+            }
+        };
+
+        BatchTransferResponse response = batchTransferService.transfer(transfers);
+
+        assertEquals(2, response.getApplied());
+        assertEquals(0, response.getRejected());
+        assertEquals(2, response.getNotRun());
+        assertEquals(TransferResult.Status.NOT_RUN, response.getResults().get(2).getStatus());
+        assertEquals(3, response.getResults().get(3).getIndex());
+        assertEquals(new BigDecimal("80.00"), balance(1L));
+        assertEquals(new BigDecimal("10.00"), balance(2L));
+        assertEquals(new BigDecimal("15.00"), balance(3L));
+    }
+
+    @Test
+    @DisplayName("transfer - a chunk whose transaction cannot begin is reported failed and earlier chunks are kept")
+    void testFailedTransactionReportsChunk() {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(database);
+        AtomicInteger transactions = new AtomicInteger();
+        PlatformTransactionManager failingSecond = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                if (transactions.incrementAndGet() == 2) {
+                    throw new CannotCreateTransactionException("no connection");
+                }
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getBatch().setChunkSize(2);
+        JdbcBatchTransferService service = new JdbcBatchTransferService(jdbcTemplate,
+                new TransactionTemplate(failingSecond), accountProperties, TransactionJournal.DISABLED, accountBalanceCache);
+
+        BatchTransferResponse response = service.transfer(Arrays.asList(
+                transfer(1L, 2L, "10"),
+                transfer(1L, 9L, "10"),
+                transfer(1L, 3L, "10"),
+                transfer(2L, 3L, "5")).iterator());
+
+        assertEquals(1, response.getApplied());
+        assertEquals(1, response.getRejected());
+        assertEquals(2, response.getFailed());
+        assertEquals(TransferResult.Status.FAILED, response.getResults().get(3).getStatus());
+        assertEquals(new BigDecimal("90.00"), balance(1L));
+        assertEquals(new BigDecimal("5.00"), balance(3L));
+    }
+
+    private BigDecimal balance(Long accountId) {
+        return jdbcTemplate.getJdbcOperations()
+                .queryForObject("select balance from account where account_id = ?", BigDecimal.class, accountId);
+    }
+
+    private TransferRequest transfer(Long from, Long to, String amount) {
+        return new TransferRequest(from, to, new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,127 @@
+package com.mts.api.service.impl;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.domain.User;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.ledger.Ledger;
+import com.mts.api.ledger.WriteBehindStore;
+import com.mts.api.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link LedgerAccountManagementService}
+ */
+@ExtendWith(MockitoExtension.class)
+class LedgerAccountManagementServiceTest {
+    private static final Long FROM_ACCOUNT_ID = 1L;
+    private static final Long TO_ACCOUNT_ID = 2L;
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private WriteBehindStore writeBehindStore;
+
+    private LedgerAccountManagementService accountManagementService;
+
+    @BeforeEach
+    void init() {
+        accountManagementService = new LedgerAccountManagementService(accountRepository, new Ledger(), writeBehindStore);
+    }
+
+    @Test
+    @DisplayName("withdrawMoney - account is loaded once and then served from memory")
+    void testWithdrawMoneyLoadsAccountOnce() {
+        when(accountRepository.findById(eq(FROM_ACCOUNT_ID)))
+                .thenReturn(Optional.of(createAccount(Money.valueOf("20"), FROM_ACCOUNT_ID)));
+
+        accountManagementService.withdrawMoney(Money.valueOf("1"), FROM_ACCOUNT_ID);
+        Account account = accountManagementService.withdrawMoney(Money.valueOf("1"), FROM_ACCOUNT_ID);
+
+        assertEquals(Money.valueOf("18.00"), account.getBalance());
+        verify(accountRepository, times(1)).findById(eq(FROM_ACCOUNT_ID));
+        verify(writeBehindStore, times(2)).markDirty(any());
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("withdrawMoney - on insufficient balance nothing is debited")
+    void testWithdrawMoneyOnInsufficientBalanceCheckError() {
+        when(accountRepository.findById(eq(FROM_ACCOUNT_ID)))
+                .thenReturn(Optional.of(createAccount(Money.valueOf("1"), FROM_ACCOUNT_ID)));
+
+        assertThrows(InsufficientBalance.class, () -> accountManagementService.withdrawMoney(Money.valueOf("10"), FROM_ACCOUNT_ID));
+        assertEquals(Money.valueOf("1.00"),
+                accountManagementService.depositMoney(Money.ZERO, FROM_ACCOUNT_ID).getBalance());
+    }
+
+    @Test
+    @DisplayName("depositMoney - on invalid account check error")
+    void testDepositMoneyOnInvalidAccountCheckError() {
+        when(accountRepository.findById(eq(FROM_ACCOUNT_ID))).thenReturn(Optional.empty());
+
+        assertThrows(AccountDoesNotExist.class, () -> accountManagementService.depositMoney(Money.valueOf("10"), FROM_ACCOUNT_ID));
+        verify(writeBehindStore, never()).markDirty(any());
+    }
+
+    @Test
+    @DisplayName("transferMoney - concurrent transfers never overdraw and conserve money")
+    void testConcurrentTransfersNeverOverdraw() throws InterruptedException {
+        when(accountRepository.findById(eq(FROM_ACCOUNT_ID)))
+                .thenReturn(Optional.of(createAccount(Money.valueOf("100"), FROM_ACCOUNT_ID)));
+        when(accountRepository.findById(eq(TO_ACCOUNT_ID)))
+                .thenReturn(Optional.of(createAccount(Money.ZERO, TO_ACCOUNT_ID)));
+
+        int attempts = 1000;
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(attempts);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < attempts; i++) {
+            executor.execute(() -> {
+                try {
+                    accountManagementService.transferMoney(Money.valueOf("1"), FROM_ACCOUNT_ID, TO_ACCOUNT_ID);
+                } catch (InsufficientBalance e) {
+                    rejected.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        Money fromBalance = accountManagementService.depositMoney(Money.ZERO, FROM_ACCOUNT_ID).getBalance();
+        Money toBalance = accountManagementService.depositMoney(Money.ZERO, TO_ACCOUNT_ID).getBalance();
+        assertEquals(Money.valueOf("0.00"), fromBalance);
+        assertEquals(Money.valueOf("100.00"), toBalance);
+        assertEquals(attempts - 100, rejected.get());
+    }
+
+    private Account createAccount(Money balance, Long accountId) {
+        return Account.builder()
+                .accountId(accountId)
+                .userId(User.builder()
+                        .email("test@mail.com")
+                        .username("testUser")
+                        .build())
+                .balance(balance)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.mts.api.service.impl;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.exceptions.ApiError;
+import com.mts.api.exceptions.impl.AccountDoesNotExist;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.ledger.WriteBehindStore;
+import com.mts.api.repository.AccountRepository;
+import com.mts.api.shard.ShardedLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link ShardedAccountManagementService}
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ShardedAccountManagementServiceTest {
+    private static final int ACCOUNTS = 16;
+    private static final Long MISSING_ACCOUNT_ID = 99L;
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private WriteBehindStore writeBehindStore;
+
+    private ShardedLedger shardedLedger;
+    private ShardedAccountManagementService accountManagementService;
+
+    @BeforeEach
+    void init() {
+        when(accountRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Long accountId = invocation.getArgument(0);
+            return accountId <= ACCOUNTS
+                    ? Optional.of(Account.builder().accountId(accountId).balance(Money.valueOf("100")).build())
+                    : Optional.empty();
+        });
+        shardedLedger = new ShardedLedger(4);
+        accountManagementService = new ShardedAccountManagementService(accountRepository, shardedLedger, writeBehindStore);
+    }
+
+    @AfterEach
+    void shutdown() {
+        shardedLedger.shutdown();
+    }
+
+    @Test
+    @DisplayName("withdrawMoney - account is loaded once, insufficient balance leaves it unchanged")
+    void testWithdrawMoney() {
+        assertEquals(Money.valueOf("90"), accountManagementService.withdrawMoney(Money.valueOf("10"), 1L).getBalance());
+        assertThrows(InsufficientBalance.class, () -> accountManagementService.withdrawMoney(Money.valueOf("91"), 1L));
+        assertEquals(Money.valueOf("90"), accountManagementService.getBalance(1L).getBalance());
+        verify(accountRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("transferMoney - a failed credit on another shard refunds the reservation")
+    void testTransferToMissingAccountRefunds() {
+        Long from = 1L;
+        while (shardedLedger.shardOf(from) == shardedLedger.shardOf(MISSING_ACCOUNT_ID)) {
+            from++;
+        }
+        Long fromAccountId = from;
+
+        assertThrows(AccountDoesNotExist.class,
+                () -> accountManagementService.transferMoney(Money.valueOf("30"), fromAccountId, MISSING_ACCOUNT_ID));
+        assertEquals(Money.valueOf("100"), accountManagementService.getBalance(fromAccountId).getBalance());
+        assertEquals(Money.valueOf("100").units(), shardedLedger.total());
+    }
+
+    @Test
+    @DisplayName("transferMoney - concurrent transfers across shards neither create nor lose money")
+    void testConcurrentTransfersConserveMoney() throws InterruptedException {
+        for (long accountId = 1; accountId <= ACCOUNTS; accountId++) {
+            accountManagementService.getBalance(accountId);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 20_000; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long from = random.nextLong(1, ACCOUNTS + 1);
+                long to = random.nextInt(20) == 0 ? MISSING_ACCOUNT_ID : random.nextLong(1, ACCOUNTS + 1);
+                try {
+                    accountManagementService.transferMoney(Money.ofUnits(random.nextLong(1, 5_000)), from, to);
+                } catch (ApiError e) {
+                    // insufficient balance or missing account, nothing moved
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(ACCOUNTS * Money.valueOf("100").units(), shardedLedger.total());
+    }
+}
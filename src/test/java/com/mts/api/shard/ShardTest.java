@@ -0,0 +1,55 @@
+package com.mts.api.shard;
+
+import com.mts.api.exceptions.impl.ServiceOverloaded;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Shard}
+ */
+class ShardTest {
+
+    @Test
+    @DisplayName("submit - commands queued before shutdown run, later ones fail instead of hanging")
+    void testSubmitAfterShutdown() throws InterruptedException {
+        Shard shard = new Shard(0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> blocking = shard.submit(s -> {
+            started.countDown();
+            return awaitUninterruptibly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Long> queued = shard.submit(Shard::total);
+
+        Thread stopper = new Thread(shard::shutdown);
+        stopper.start();
+        while (stopper.getState() != Thread.State.TIMED_WAITING) {
+            Thread.yield();
+        }
+        CompletableFuture<Long> rejected = shard.submit(Shard::total);
+        release.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertTrue(blocking.join());
+        assertEquals(Long.valueOf(0), queued.join());
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(e.getCause() instanceof ServiceOverloaded);
+    }
+
+    private static boolean awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
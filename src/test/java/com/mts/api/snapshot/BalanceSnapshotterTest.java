@@ -0,0 +1,100 @@
+package com.mts.api.snapshot;
+
+import com.mts.api.journal.FsyncPolicy;
+import com.mts.api.journal.JournalRecord;
+import com.mts.api.journal.MappedFileJournal;
+import com.mts.api.journal.RecordType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link BalanceSnapshotter}
+ */
+class BalanceSnapshotterTest {
+    private static final int SEGMENT_SIZE = JournalRecord.SIZE * 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("recover - loads the latest snapshot and replays only the journal written after it")
+    void testRecoverReplaysOnlyJournalAfterSnapshot() throws IOException {
+        try (MappedFileJournal journal = openJournal()) {
+            journal.append(RecordType.CREATE, 1, 0, 0);
+            journal.append(RecordType.CREATE, 2, 0, 0);
+            journal.append(RecordType.DEPOSIT, 1, 0, 10_000);
+            journal.append(RecordType.TRANSFER, 1, 2, 2_550);
+            journal.append(RecordType.WITHDRAW, 2, 0, 50);
+            new BalanceSnapshotter(journal, snapshotStore()).checkpoint();
+            journal.append(RecordType.DEPOSIT, 2, 0, 1);
+        }
+        // the first segment is fully covered by the snapshot, so recovery must not need it
+        Files.delete(directory.resolve("journal").resolve(String.format("journal-%020d.seg", 1)));
+
+        try (MappedFileJournal journal = openJournal()) {
+            BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotStore());
+            Map<Long, Long> balances = snapshotter.recover();
+
+            assertEquals(Long.valueOf(7_450), balances.get(1L));
+            assertEquals(Long.valueOf(2_501), balances.get(2L));
+            BalanceSnapshot latest = snapshotStore().latest().orElseThrow(AssertionError::new);
+            assertEquals(5, latest.getSequence());
+            assertEquals(2, latest.version(1L));
+            assertEquals(2, latest.version(2L));
+        }
+    }
+
+    @Test
+    @DisplayName("recover - a corrupt newest snapshot falls back to the previous one")
+    void testRecoverFallsBackFromCorruptSnapshot() throws IOException {
+        try (MappedFileJournal journal = openJournal()) {
+            BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotStore());
+            journal.append(RecordType.CREATE, 1, 0, 0);
+            journal.append(RecordType.DEPOSIT, 1, 0, 300);
+            snapshotter.checkpoint();
+            journal.append(RecordType.WITHDRAW, 1, 0, 100);
+            snapshotter.checkpoint();
+            snapshotter.checkpoint();
+        }
+        List<Path> snapshots = snapshotFiles();
+        assertEquals(2, snapshots.size());
+        try (FileChannel channel = FileChannel.open(snapshots.get(1), WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 30);
+        }
+
+        try (MappedFileJournal journal = openJournal()) {
+            BalanceSnapshotter snapshotter = new BalanceSnapshotter(journal, snapshotStore());
+            assertEquals(Long.valueOf(200), snapshotter.recover().get(1L));
+            assertEquals(2, snapshotStore().latest().orElseThrow(AssertionError::new).getSequence());
+        }
+    }
+
+    private MappedFileJournal openJournal() {
+        return new MappedFileJournal(directory.resolve("journal"), SEGMENT_SIZE, FsyncPolicy.PER_WRITE, Duration.ofMillis(1));
+    }
+
+    private SnapshotStore snapshotStore() {
+        return new SnapshotStore(directory.resolve("snapshots"), 2);
+    }
+
+    private List<Path> snapshotFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("snapshots"))) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mts.api.wire;
+
+import com.mts.api.domain.Account;
+import com.mts.api.domain.Money;
+import com.mts.api.exceptions.impl.InsufficientBalance;
+import com.mts.api.service.AccountManagementService;
+import com.mts.api.wire.WireProtocol.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link WireServer}
+ */
+@ExtendWith(MockitoExtension.class)
+class WireServerTest {
+    private static final int MAX_PIPELINED = 4;
+
+    @Mock
+    private AccountManagementService accountManagementService;
+
+    private WireServer server;
+    private WireClient client;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = new WireServer(accountManagementService, new InetSocketAddress("localhost", 0), 2, MAX_PIPELINED);
+        client = new WireClient(new InetSocketAddress("localhost", server.getPort()));
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    @DisplayName("pipelining - far more requests than max-pipelined are answered in order")
+    void testPipelinedRequestsAnsweredInOrder() throws IOException {
+        when(accountManagementService.depositMoney(any(), any())).thenAnswer(invocation -> Account.builder()
+                .accountId(invocation.getArgument(1))
+                .balance(invocation.getArgument(0))
+                .build());
+
+        for (int i = 1; i <= 100; i++) {
+            client.send(WireOperation.DEPOSIT, 7L, 0, i);
+        }
+        for (int i = 1; i <= 100; i++) {
+            Response response = client.receive();
+            assertEquals(i - 1, response.getCorrelationId());
+            assertTrue(response.isOk());
+            assertEquals(i, response.getBalance());
+        }
+        verify(accountManagementService, times(100)).depositMoney(any(), eq(7L));
+    }
+
+    @Test
+    @DisplayName("transfer - dispatches to the account service with the amount in minor units")
+    void testTransferDispatched() throws IOException {
+        Response response = client.call(WireOperation.TRANSFER, 1L, 2L, 250);
+
+        assertTrue(response.isOk());
+        verify(accountManagementService).transferMoney(Money.valueOf("2.50"), 1L, 2L);
+    }
+
+    @Test
+    @DisplayName("errors - answered with the REST status and reason, and the connection stays usable")
+    void testErrorsAnswered() throws IOException {
+        when(accountManagementService.withdrawMoney(Money.ofUnits(500), 1L)).thenThrow(new InsufficientBalance(Money.ofUnits(500)));
+
+        Response insufficient = client.call(WireOperation.WITHDRAW, 1L, 0, 500);
+        assertEquals(404, insufficient.getStatus());
+        assertEquals(4, insufficient.getReason());
+
+        Response invalid = client.call(WireOperation.DEPOSIT, 1L, 0, 0);
+        assertEquals(400, invalid.getStatus());
+        assertEquals(3, invalid.getReason());
+        verify(accountManagementService, never()).depositMoney(any(), any());
+    }
+}